@@ -1,15 +1,19 @@
 package com.nutrition.dietbalancetracker.config;
 
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.nutrition.dietbalancetracker.model.FoodCategory;
 import com.nutrition.dietbalancetracker.model.FoodItem;
 import com.nutrition.dietbalancetracker.model.NutrientProfile;
+import com.nutrition.dietbalancetracker.repository.ArchivedDietaryEntryRepository;
 import com.nutrition.dietbalancetracker.repository.DietaryEntryRepository;
 import com.nutrition.dietbalancetracker.repository.FoodItemRepository;
 import com.nutrition.dietbalancetracker.repository.NutrientProfileRepository;
+import com.nutrition.dietbalancetracker.service.DailyRollupService;
+import com.nutrition.dietbalancetracker.service.FoodCatalogChangedEvent;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,6 +29,9 @@ public class DataInitializer implements CommandLineRunner {
     private final FoodItemRepository foodItemRepository;
     private final NutrientProfileRepository nutrientProfileRepository;
     private final DietaryEntryRepository dietaryEntryRepository;
+    private final ArchivedDietaryEntryRepository archivedDietaryEntryRepository;
+    private final DailyRollupService dailyRollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Version flag – bump this whenever the seed list changes so old data is refreshed
     private static final int SEED_VERSION = 2;
@@ -40,10 +47,15 @@ public class DataInitializer implements CommandLineRunner {
             // Remove old system foods and their related records
             if (!systemFoods.isEmpty()) {
                 dietaryEntryRepository.deleteByFoodItemIn(systemFoods);
+                archivedDietaryEntryRepository.deleteByFoodItemIn(systemFoods);
                 nutrientProfileRepository.deleteByFoodItemIn(systemFoods);
                 foodItemRepository.deleteAll(systemFoods);
+                // Entries for the old foods are gone, so the daily totals must be recomputed
+                // (archived days included - see DailyRollupService.rebuildUser)
+                dailyRollupService.rebuildAll();
             }
             initializeSampleFoods();
+            eventPublisher.publishEvent(FoodCatalogChangedEvent.reseeded());
         }
     }
     
@@ -0,0 +1,62 @@
+package com.nutrition.dietbalancetracker.config;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * HIBERNATE CACHE CONFIG
+ * ======================
+ * Sets up the second-level cache regions that keep foods and nutrient
+ * profiles in memory, so loading a food by id (logging a meal, building
+ * entry responses) doesn't go back to the database every time.
+ *
+ * Each region is a bounded Caffeine cache. Changes made through this node
+ * update the cache as part of the transaction; entries also expire after a
+ * while so changes made by other nodes are picked up eventually.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String FOOD_ITEMS_REGION = "food_items";
+    public static final String NUTRIENT_PROFILES_REGION = "nutrient_profiles";
+
+    public static final List<String> REGIONS =
+            List.of(FOOD_ITEMS_REGION, NUTRIENT_PROFILES_REGION);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${food.entity-cache.max-size:5000}") long maxSize,
+            @Value("${food.entity-cache.ttl-seconds:1800}") long ttlSeconds) {
+        CacheManager cacheManager = Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+            config.setMaximumSize(OptionalLong.of(maxSize));
+            config.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            if (cacheManager.getCache(region) == null) {
+                cacheManager.createCache(region, config);
+            }
+        }
+        return cacheManager;
+    }
+
+    // Hand Hibernate the cache manager holding the regions created above
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
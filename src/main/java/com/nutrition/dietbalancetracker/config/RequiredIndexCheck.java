@@ -0,0 +1,122 @@
+package com.nutrition.dietbalancetracker.config;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * REQUIRED INDEX CHECK
+ * ====================
+ * Refuses to start if an index the hot queries rely on is missing.
+ *
+ * Without these indexes the app still works, just with table scans that
+ * get slower as data grows - the kind of problem nobody notices until
+ * production. This runs as a Flyway callback right after the migrations,
+ * before JPA, the web server or any scheduled job starts, so it turns into
+ * an immediate, obvious startup failure.
+ *
+ * An index counts as present when some index on the table starts with the
+ * required columns in that order, whatever it is called.
+ */
+@Component
+@Slf4j
+public class RequiredIndexCheck implements Callback {
+
+    private record RequiredIndex(String table, List<String> columns, String usedBy) { }
+
+    private static final List<RequiredIndex> REQUIRED = List.of(
+        new RequiredIndex("dietary_entries", List.of("user_id", "consumed_at", "id"),
+                "DietaryEntryRepository user/date-range finders and history paging"),
+        new RequiredIndex("dietary_entries_archive", List.of("user_id", "consumed_at"),
+                "AccountPurgeService archived entry deletes"),
+        new RequiredIndex("chat_messages", List.of("user_id", "created_at"),
+                "ChatMessageRepository.findByUserIdOrderByCreatedAtAsc"),
+        new RequiredIndex("daily_nutrient_rollups", List.of("user_id", "rollup_date"),
+                "DailyNutrientRollupRepository range lookups"),
+        new RequiredIndex("nutrient_analyses", List.of("user_id", "end_date"),
+                "NutrientAnalysisRepository latest snapshot")
+    );
+
+    @Value("${schema.index-check.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return enabled && event == Event.AFTER_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "RequiredIndexCheck";
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        // Flyway's own connection - it closes it
+        Connection connection = context.getConnection();
+        List<String> missing = new ArrayList<>();
+        try {
+            DatabaseMetaData meta = connection.getMetaData();
+            for (RequiredIndex required : REQUIRED) {
+                if (!hasIndex(meta, connection.getCatalog(), connection.getSchema(), required)) {
+                    missing.add(required.table() + " (" + String.join(", ", required.columns())
+                            + ") - used by " + required.usedBy());
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the database indexes: " + e.getMessage(), e);
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Required database indexes are missing: " + missing
+                    + ". Run the pending migrations (src/main/resources/db/migration) or set"
+                    + " schema.index-check.enabled=false to start anyway.");
+        }
+        log.info("All {} required indexes are present", REQUIRED.size());
+    }
+
+    private static boolean hasIndex(DatabaseMetaData meta, String catalog, String schema,
+                                    RequiredIndex required) throws SQLException {
+        // Columns of each index on the table, by position
+        Map<String, Map<Integer, String>> indexes = new TreeMap<>();
+        for (String table : List.of(required.table(), required.table().toUpperCase(Locale.ROOT))) {
+            try (ResultSet rs = meta.getIndexInfo(catalog, schema, table, false, false)) {
+                while (rs.next()) {
+                    String name = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (name == null || column == null) continue;
+                    indexes.computeIfAbsent(name, n -> new TreeMap<>())
+                           .put((int) rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                }
+            }
+            if (!indexes.isEmpty()) break;
+        }
+
+        for (Map<Integer, String> columns : indexes.values()) {
+            List<String> ordered = new ArrayList<>(columns.values());
+            if (ordered.size() >= required.columns().size()
+                    && ordered.subList(0, required.columns().size()).equals(required.columns())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
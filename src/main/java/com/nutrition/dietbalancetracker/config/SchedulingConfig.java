@@ -0,0 +1,14 @@
+package com.nutrition.dietbalancetracker.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * SCHEDULING CONFIG
+ * =================
+ * Turns on @Scheduled methods (periodic background checks and jobs).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
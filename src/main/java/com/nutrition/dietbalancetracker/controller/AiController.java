@@ -4,7 +4,6 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,6 +17,7 @@ import com.nutrition.dietbalancetracker.dto.AiChatRequestDTO;
 import com.nutrition.dietbalancetracker.dto.AiChatResponseDTO;
 import com.nutrition.dietbalancetracker.model.ChatMessage;
 import com.nutrition.dietbalancetracker.repository.ChatMessageRepository;
+import com.nutrition.dietbalancetracker.service.AccountPurgeService;
 import com.nutrition.dietbalancetracker.service.AiService;
 
 import lombok.RequiredArgsConstructor;
@@ -35,6 +35,7 @@ public class AiController {
 
     private final AiService aiService;
     private final ChatMessageRepository chatMessageRepository;
+    private final AccountPurgeService accountPurgeService;
 
     /**
      * POST /api/ai/chat
@@ -75,12 +76,11 @@ public class AiController {
 
     /**
      * DELETE /api/ai/history?userId=X
-     * Delete ALL chat messages for a user.
+     * Delete ALL chat messages for a user (in chunks, see AccountPurgeService).
      */
     @DeleteMapping("/history")
-    @Transactional
     public ResponseEntity<Map<String, String>> clearHistory(@RequestParam Long userId) {
-        chatMessageRepository.deleteByUserId(userId);
+        accountPurgeService.clearChatHistory(userId);
         return ResponseEntity.ok(Map.of("message", "Chat history cleared"));
     }
 
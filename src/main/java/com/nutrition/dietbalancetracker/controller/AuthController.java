@@ -4,7 +4,6 @@ import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -20,9 +19,9 @@ import com.nutrition.dietbalancetracker.dto.PasswordChangeDTO;
 import com.nutrition.dietbalancetracker.dto.UserProfileDTO;
 import com.nutrition.dietbalancetracker.dto.UserRegistrationDTO;
 import com.nutrition.dietbalancetracker.model.User;
-import com.nutrition.dietbalancetracker.repository.DietaryEntryRepository;
-import com.nutrition.dietbalancetracker.repository.NutritionGoalRepository;
 import com.nutrition.dietbalancetracker.repository.UserRepository;
+import com.nutrition.dietbalancetracker.service.AccountPurgeService;
+import com.nutrition.dietbalancetracker.service.AnalysisCache;
 import com.nutrition.dietbalancetracker.service.UserService;
 
 import jakarta.validation.Valid;
@@ -39,20 +38,20 @@ public class AuthController {
     private final UserService userService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final DietaryEntryRepository dietaryEntryRepository;
-    private final NutritionGoalRepository nutritionGoalRepository;
+    private final AnalysisCache analysisCache;
+    private final AccountPurgeService accountPurgeService;
 
     public AuthController(
             UserService userService,
             UserRepository userRepository,
             PasswordEncoder passwordEncoder,
-            DietaryEntryRepository dietaryEntryRepository,
-            NutritionGoalRepository nutritionGoalRepository) {
+            AnalysisCache analysisCache,
+            AccountPurgeService accountPurgeService) {
         this.userService = userService;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.dietaryEntryRepository = dietaryEntryRepository;
-        this.nutritionGoalRepository = nutritionGoalRepository;
+        this.analysisCache = analysisCache;
+        this.accountPurgeService = accountPurgeService;
     }
     
     // POST /api/auth/register
@@ -108,6 +107,8 @@ public class AuthController {
                         user.setHeightCm(((Number) updates.get("heightCm")).doubleValue());
                     }
                     User saved = userRepository.save(user);
+                    // Weight/height drive the BMI-adjusted RDAs in cached analyses
+                    analysisCache.invalidateUser(userId);
                     return ResponseEntity.ok(toProfileDTO(saved));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -132,8 +133,8 @@ public class AuthController {
     }
 
     // DELETE /api/auth/account?userId=1
+    // Not @Transactional: the purge commits large deletes in chunks of their own
     @DeleteMapping("/account")
-    @Transactional
     public ResponseEntity<Map<String, String>> deleteAccount(
             @RequestParam Long userId,
             @RequestBody Map<String, String> body) {
@@ -144,10 +145,7 @@ public class AuthController {
                         return ResponseEntity.badRequest()
                                 .body(Map.of("message", "Password is incorrect"));
                     }
-                    // Delete related data first
-                    nutritionGoalRepository.deleteByUserId(userId);
-                    dietaryEntryRepository.deleteAll(user.getDietaryEntries());
-                    userRepository.delete(user);
+                    accountPurgeService.deleteAccount(userId);
                     return ResponseEntity.ok(Map.of("message", "Account deleted successfully"));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -1,11 +1,14 @@
 package com.nutrition.dietbalancetracker.controller;
 
 import com.nutrition.dietbalancetracker.dto.ChartDataDTO;
+import com.nutrition.dietbalancetracker.service.AnalysisCache;
 import com.nutrition.dietbalancetracker.service.ChartDataService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 /**
  * CHART DATA CONTROLLER
  * =====================
@@ -17,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 public class ChartController {
 
     private final ChartDataService chartDataService;
+    private final AnalysisCache analysisCache;
 
     /**
      * GET /api/charts?userId=1&days=7
@@ -26,7 +30,8 @@ public class ChartController {
     public ResponseEntity<ChartDataDTO> getChartData(
             @RequestParam Long userId,
             @RequestParam(defaultValue = "7") int days) {
-        days = Math.max(1, Math.min(days, 90)); // clamp 1..90
-        return ResponseEntity.ok(chartDataService.getChartData(userId, days));
+        int range = Math.max(1, Math.min(days, 90)); // clamp 1..90
+        return ResponseEntity.ok(analysisCache.get(userId, "charts:" + range + ":" + LocalDate.now(),
+                () -> chartDataService.getChartData(userId, range)));
     }
 }
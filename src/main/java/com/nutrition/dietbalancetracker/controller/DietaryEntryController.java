@@ -1,6 +1,8 @@
 package com.nutrition.dietbalancetracker.controller;
 
+import com.nutrition.dietbalancetracker.dto.DietaryEntryBatchDTO;
 import com.nutrition.dietbalancetracker.dto.DietaryEntryDTO;
+import com.nutrition.dietbalancetracker.dto.DietaryEntryPageDTO;
 import com.nutrition.dietbalancetracker.dto.DietaryEntryResponseDTO;
 import com.nutrition.dietbalancetracker.dto.FoodItemResponseDTO;
 import com.nutrition.dietbalancetracker.model.DietaryEntry;
@@ -39,7 +41,23 @@ public class DietaryEntryController {
         }
     }
     
-    // GET /api/dietary-entries?userId=1
+    // POST /api/dietary-entries/batch?userId=1 — log several meals at once (all or nothing)
+    @PostMapping("/batch")
+    public ResponseEntity<List<DietaryEntryResponseDTO>> logMeals(
+            @RequestParam Long userId,
+            @Valid @RequestBody DietaryEntryBatchDTO dto) {
+        try {
+            List<DietaryEntry> entries = dietaryEntryService.logMeals(userId, dto.getEntries());
+            List<DietaryEntryResponseDTO> dtos = entries.stream()
+                    .map(this::toResponseDTO)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(dtos);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // GET /api/dietary-entries?userId=1 — most recent 500 entries (use /page for everything)
     @GetMapping
     public ResponseEntity<List<DietaryEntryResponseDTO>> getMealHistory(@RequestParam Long userId) {
         List<DietaryEntry> entries = dietaryEntryService.getMealHistory(userId);
@@ -49,7 +67,7 @@ public class DietaryEntryController {
         return ResponseEntity.ok(dtos);
     }
 
-    // GET /api/dietary-entries/user/{userId} — path param variant for frontend
+    // GET /api/dietary-entries/user/{userId} — path param variant for frontend (same 500 cap)
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<DietaryEntryResponseDTO>> getMealHistoryByPath(@PathVariable Long userId) {
         List<DietaryEntry> entries = dietaryEntryService.getMealHistory(userId);
@@ -59,6 +77,23 @@ public class DietaryEntryController {
         return ResponseEntity.ok(dtos);
     }
     
+    // GET /api/dietary-entries/page?userId=1&limit=20&cursor=...
+    @GetMapping("/page")
+    public ResponseEntity<DietaryEntryPageDTO> getMealHistoryPage(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            DietaryEntryService.HistoryPage page = dietaryEntryService.getMealHistoryPage(userId, cursor, limit);
+            List<DietaryEntryResponseDTO> dtos = page.entries().stream()
+                    .map(this::toResponseDTO)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(new DietaryEntryPageDTO(dtos, page.nextCursor(), page.nextCursor() != null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // GET /api/dietary-entries/today?userId=1
     @GetMapping("/today")
     public ResponseEntity<List<DietaryEntryResponseDTO>> getTodaysMeals(@RequestParam Long userId) {
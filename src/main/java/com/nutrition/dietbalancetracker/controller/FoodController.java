@@ -1,8 +1,15 @@
 package com.nutrition.dietbalancetracker.controller;
 
 import com.nutrition.dietbalancetracker.dto.FoodItemResponseDTO;
+import com.nutrition.dietbalancetracker.dto.FoodSuggestionDTO;
+import com.nutrition.dietbalancetracker.service.FoodAutocompleteIndex;
+import com.nutrition.dietbalancetracker.service.FoodCatalogPayload;
+import com.nutrition.dietbalancetracker.service.FoodEntityCache;
 import com.nutrition.dietbalancetracker.service.FoodItemService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -19,26 +26,117 @@ import java.util.Map;
 public class FoodController {
     
     private final FoodItemService foodItemService;
+    private final FoodAutocompleteIndex foodAutocompleteIndex;
+    private final FoodCatalogPayload foodCatalogPayload;
+    private final FoodEntityCache foodEntityCache;
 
     // GET /api/foods — list all foods (for FoodLogging page)
+    // Served from pre-serialized bytes; send If-None-Match to get 304 when unchanged.
+    // GET /api/foods?page=0&limit=50&view=summary — one page, X-Total-Count header holds the total
     @GetMapping
-    public ResponseEntity<List<FoodItemResponseDTO>> getAllFoods() {
-        List<FoodItemResponseDTO> foods = foodItemService.searchFoods(null, null);
-        return ResponseEntity.ok(foods);
+    public ResponseEntity<?> getAllFoods(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (limit != null || view != null) {
+            return listing(null, null, null, null, page, limit, view);
+        }
+
+        FoodCatalogPayload.Payload payload = foodCatalogPayload.current();
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String etag = gzip ? payload.gzipEtag() : payload.etag();
+
+        if (payload.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzipped());
+        }
+        return response.body(payload.json());
     }
     
     // GET /api/foods/search?query=apple&category=GRAIN
+    // GET /api/foods/search?query=panner&mode=fuzzy — also matches misspellings
+    // Pass userId to get the foods that user logs most often first; page/limit/view as for /api/foods
     @GetMapping("/search")
-    public ResponseEntity<List<FoodItemResponseDTO>> searchFoods(
+    public ResponseEntity<?> searchFoods(
             @RequestParam(required = false) String query,
-            @RequestParam(required = false) String category) {
-        List<FoodItemResponseDTO> foods = foodItemService.searchFoods(query, category);
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String mode,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view) {
+        if (limit != null || view != null) {
+            return listing(query, category, mode, userId, page, limit, view);
+        }
+        List<FoodItemResponseDTO> foods = foodItemService.searchFoods(query, category, mode, userId);
         return ResponseEntity.ok(foods);
     }
 
+    private ResponseEntity<?> listing(String query, String category, String mode, Long userId,
+                                      int page, Integer limit, String view) {
+        try {
+            FoodItemService.Listing<?> listing = foodItemService.listFoods(query, category, mode, userId, page, limit, view);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(listing.total()))
+                    .body(listing.items());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // GET /api/foods/autocomplete?prefix=chi&limit=8&userId=1 — lightweight suggestions while typing
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<FoodSuggestionDTO>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit,
+            @RequestParam(required = false) Long userId) {
+        return ResponseEntity.ok(foodAutocompleteIndex.suggest(prefix, limit, userId));
+    }
+
+    // GET /api/foods/filter?minProtein=20&maxCalories=200&category=PROTEIN,DAIRY
+    // Any nutrient works with a min/max prefix (per serving, inclusive)
+    @GetMapping("/filter")
+    public ResponseEntity<List<FoodItemResponseDTO>> filterFoods(@RequestParam Map<String, String> params) {
+        try {
+            return ResponseEntity.ok(foodItemService.filterFoods(params));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // GET /api/foods/{id}/similar?limit=5&category=GRAIN — substitutes with the closest nutrient profile
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<FoodItemResponseDTO>> similarFoods(
+            @PathVariable Long id,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "5") int limit) {
+        try {
+            return ResponseEntity.ok(foodItemService.similarFoods(id, category, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // GET /api/foods/categories — returns [{category: "GRAIN", count: 15}, ...]
     @GetMapping("/categories")
     public ResponseEntity<List<Map<String, Object>>> getCategories() {
         return ResponseEntity.ok(foodItemService.getCategoryCounts());
     }
+
+    // GET /api/foods/cache-stats — second-level cache statistics per region (foods, nutrient profiles)
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(foodEntityCache.stats());
+    }
 }
@@ -1,13 +1,19 @@
 package com.nutrition.dietbalancetracker.controller;
 
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.nutrition.dietbalancetracker.dto.NutrientAnalysisDTO;
+import com.nutrition.dietbalancetracker.dto.NutrientAnalysisSnapshotDTO;
+import com.nutrition.dietbalancetracker.service.AnalysisCache;
+import com.nutrition.dietbalancetracker.service.NutrientAnalysisBatchService;
 import com.nutrition.dietbalancetracker.service.NutrientAnalysisService;
 
 import lombok.RequiredArgsConstructor;
@@ -24,6 +30,8 @@ import lombok.RequiredArgsConstructor;
 public class NutrientAnalysisController {
 
     private final NutrientAnalysisService nutrientAnalysisService;
+    private final AnalysisCache analysisCache;
+    private final NutrientAnalysisBatchService nutrientAnalysisBatchService;
 
     /**
      * GET /api/analysis/today?userId=1
@@ -31,7 +39,8 @@ public class NutrientAnalysisController {
      */
     @GetMapping("/today")
     public ResponseEntity<NutrientAnalysisDTO> analyzeToday(@RequestParam Long userId) {
-        NutrientAnalysisDTO analysis = nutrientAnalysisService.analyzeToday(userId);
+        NutrientAnalysisDTO analysis = analysisCache.get(userId, "today:" + LocalDate.now(),
+                () -> nutrientAnalysisService.analyzeToday(userId));
         return ResponseEntity.ok(analysis);
     }
 
@@ -41,7 +50,45 @@ public class NutrientAnalysisController {
      */
     @GetMapping("/week")
     public ResponseEntity<NutrientAnalysisDTO> analyzeWeek(@RequestParam Long userId) {
-        NutrientAnalysisDTO analysis = nutrientAnalysisService.analyzeWeek(userId);
+        NutrientAnalysisDTO analysis = analysisCache.get(userId, "week:" + LocalDate.now(),
+                () -> nutrientAnalysisService.analyzeWeek(userId));
         return ResponseEntity.ok(analysis);
     }
+
+    /**
+     * GET /api/analysis/range?userId=1&from=2024-01-01&to=2024-03-31
+     * Analyze any date range, inclusive (daily average over days with entries).
+     */
+    @GetMapping("/range")
+    public ResponseEntity<NutrientAnalysisDTO> analyzeRange(
+            @RequestParam Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        NutrientAnalysisDTO analysis = analysisCache.get(userId, "range:" + from + ":" + to,
+                () -> nutrientAnalysisService.analyzeRange(userId, from, to));
+        return ResponseEntity.ok(analysis);
+    }
+
+    /**
+     * GET /api/analysis/snapshot?userId=1
+     * Latest precomputed analysis from the nightly batch job (404 if none yet).
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<NutrientAnalysisSnapshotDTO> latestSnapshot(@RequestParam Long userId) {
+        return nutrientAnalysisBatchService.latestSnapshot(userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/analysis/cache-stats
+     * Hit/miss/eviction statistics of the analysis + chart result cache.
+     */
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(analysisCache.stats());
+    }
 }
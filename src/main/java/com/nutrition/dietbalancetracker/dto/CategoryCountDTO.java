@@ -0,0 +1,17 @@
+package com.nutrition.dietbalancetracker.dto;
+
+import com.nutrition.dietbalancetracker.model.FoodCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * CATEGORY COUNT DTO
+ * ==================
+ * How many active foods are in a category.
+ */
+@Data
+@AllArgsConstructor
+public class CategoryCountDTO {
+    private FoodCategory category;
+    private Long count;
+}
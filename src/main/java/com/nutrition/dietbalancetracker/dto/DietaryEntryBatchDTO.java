@@ -0,0 +1,20 @@
+package com.nutrition.dietbalancetracker.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+/**
+ * DIETARY ENTRY BATCH DTO
+ * =======================
+ * Several meals to log at once (e.g. a whole day filled in after the fact).
+ * Every entry is validated like a single DietaryEntryDTO.
+ */
+@Data
+public class DietaryEntryBatchDTO {
+
+    @NotEmpty(message = "At least one entry is required")
+    private List<@Valid DietaryEntryDTO> entries;
+}
@@ -0,0 +1,22 @@
+package com.nutrition.dietbalancetracker.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DIETARY ENTRY PAGE DTO
+ * ======================
+ * One page of meal history. Pass nextCursor back as ?cursor= to get the
+ * following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DietaryEntryPageDTO {
+    private List<DietaryEntryResponseDTO> entries;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,29 @@
+package com.nutrition.dietbalancetracker.dto;
+
+import java.time.LocalDateTime;
+
+import com.nutrition.dietbalancetracker.model.MealType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * ENTRY TUPLE DTO
+ * ===============
+ * The four columns of a dietary entry that aggregation needs.
+ * Nutrients are looked up from the in-memory food nutrient matrix,
+ * so no FoodItem / NutrientProfile entities are loaded.
+ */
+@Data
+@AllArgsConstructor
+public class EntryTupleDTO {
+    private Long foodItemId;
+    private Double portionSize;
+    private LocalDateTime consumedAt;
+    private MealType mealType;
+
+    /** Portion size, treating a missing value as one serving */
+    public double portion() {
+        return portionSize != null ? portionSize : 1.0;
+    }
+}
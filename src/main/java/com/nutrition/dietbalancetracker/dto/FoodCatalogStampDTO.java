@@ -0,0 +1,20 @@
+package com.nutrition.dietbalancetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * FOOD CATALOG STAMP DTO
+ * ======================
+ * A cheap fingerprint of the food catalog: row count, summed versions,
+ * highest id and number of active foods. If any food is added, removed,
+ * re-versioned or (de)activated, at least one of these changes.
+ */
+@Data
+@AllArgsConstructor
+public class FoodCatalogStampDTO {
+    private Long count;
+    private Long versionSum;
+    private Long maxId;
+    private Long activeCount;
+}
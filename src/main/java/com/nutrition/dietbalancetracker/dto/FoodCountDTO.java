@@ -0,0 +1,16 @@
+package com.nutrition.dietbalancetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * FOOD COUNT DTO
+ * ==============
+ * How many dietary entries reference a food.
+ */
+@Data
+@AllArgsConstructor
+public class FoodCountDTO {
+    private Long foodItemId;
+    private Long count;
+}
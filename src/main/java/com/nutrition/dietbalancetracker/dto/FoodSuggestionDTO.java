@@ -0,0 +1,20 @@
+package com.nutrition.dietbalancetracker.dto;
+
+import com.nutrition.dietbalancetracker.model.FoodCategory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * FOOD SUGGESTION DTO
+ * ===================
+ * One autocomplete suggestion - just enough to show in a dropdown.
+ * The full food is fetched once the user picks it.
+ */
+@Data
+@AllArgsConstructor
+public class FoodSuggestionDTO {
+    private Long id;
+    private String name;
+    private FoodCategory category;
+}
@@ -0,0 +1,20 @@
+package com.nutrition.dietbalancetracker.dto;
+
+import com.nutrition.dietbalancetracker.model.FoodCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * FOOD SUMMARY DTO
+ * ================
+ * The few fields list screens show for a food (view=summary),
+ * without the nested nutrient profile.
+ */
+@Data
+@AllArgsConstructor
+public class FoodSummaryDTO {
+    private Long id;
+    private String name;
+    private FoodCategory category;
+    private Double calories;
+}
@@ -0,0 +1,45 @@
+package com.nutrition.dietbalancetracker.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.nutrition.dietbalancetracker.model.DeficiencyLevel;
+import com.nutrition.dietbalancetracker.model.Nutrient;
+
+import lombok.Data;
+
+/**
+ * NUTRIENT ANALYSIS SNAPSHOT DTO
+ * ==============================
+ * A precomputed analysis written by the nightly batch job:
+ * nutrient totals for the period and the deficiencies found.
+ */
+@Data
+public class NutrientAnalysisSnapshotDTO {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDateTime calculatedAt;
+
+    private double totalCalories;
+    private double totalProtein;
+    private double totalCarbohydrates;
+    private double totalFat;
+    private double totalFiber;
+    private double totalVitaminA;
+    private double totalVitaminC;
+    private double totalVitaminD;
+    private double totalCalcium;
+    private double totalIron;
+
+    private List<Deficiency> deficiencies;
+
+    @Data
+    public static class Deficiency {
+        private Nutrient nutrient;
+        private double actualIntake;
+        private double recommendedIntake;
+        private double deficiencyPercentage;
+        private DeficiencyLevel level;
+    }
+}
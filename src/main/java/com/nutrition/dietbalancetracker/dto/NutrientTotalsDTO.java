@@ -0,0 +1,108 @@
+package com.nutrition.dietbalancetracker.dto;
+
+import java.time.LocalDate;
+
+import com.nutrition.dietbalancetracker.model.MealType;
+import com.nutrition.dietbalancetracker.model.Nutrient;
+import com.nutrition.dietbalancetracker.model.NutrientVector;
+
+import lombok.Data;
+
+/**
+ * NUTRIENT TOTALS DTO
+ * ===================
+ * One row of a database-side aggregation over dietary entries:
+ * the group key (a day + meal type, or a food), how many entries fell
+ * into the group and the summed nutrients (portion size already applied).
+ *
+ * Built directly by JPQL constructor expressions, so aggregations move a
+ * few primitive rows over JDBC instead of full entity graphs.
+ */
+@Data
+public class NutrientTotalsDTO {
+    private LocalDate day;
+    private MealType mealType;
+    private Long foodItemId;
+    private String foodName;
+    private long entryCount;
+
+    /** Summed nutrients, indexed by Nutrient ordinal */
+    private double[] totals;
+
+    /** Group by day and meal type */
+    public NutrientTotalsDTO(LocalDate day, MealType mealType, Long entryCount,
+                             Double calories,
+                             Double protein,
+                             Double carbohydrates,
+                             Double fat,
+                             Double fiber,
+                             Double vitaminA,
+                             Double vitaminC,
+                             Double vitaminD,
+                             Double vitaminE,
+                             Double vitaminK,
+                             Double vitaminB12,
+                             Double calcium,
+                             Double iron,
+                             Double magnesium,
+                             Double zinc,
+                             Double potassium) {
+        this.day = day;
+        this.mealType = mealType;
+        this.entryCount = entryCount;
+        this.totals = pack(calories, protein, carbohydrates, fat, fiber, vitaminA, vitaminC, vitaminD, vitaminE, vitaminK, vitaminB12, calcium, iron, magnesium, zinc, potassium);
+    }
+
+    /** Group by food */
+    public NutrientTotalsDTO(Long foodItemId, String foodName, Long entryCount,
+                             Double calories,
+                             Double protein,
+                             Double carbohydrates,
+                             Double fat,
+                             Double fiber,
+                             Double vitaminA,
+                             Double vitaminC,
+                             Double vitaminD,
+                             Double vitaminE,
+                             Double vitaminK,
+                             Double vitaminB12,
+                             Double calcium,
+                             Double iron,
+                             Double magnesium,
+                             Double zinc,
+                             Double potassium) {
+        this.foodItemId = foodItemId;
+        this.foodName = foodName;
+        this.entryCount = entryCount;
+        this.totals = pack(calories, protein, carbohydrates, fat, fiber, vitaminA, vitaminC, vitaminD, vitaminE, vitaminK, vitaminB12, calcium, iron, magnesium, zinc, potassium);
+    }
+
+    public NutrientVector nutrients() {
+        return NutrientVector.wrap(totals);
+    }
+
+    private static double[] pack(Double calories, Double protein, Double carbohydrates, Double fat, Double fiber, Double vitaminA, Double vitaminC, Double vitaminD, Double vitaminE, Double vitaminK, Double vitaminB12, Double calcium, Double iron, Double magnesium, Double zinc, Double potassium) {
+        return new NutrientVector()
+                .set(Nutrient.CALORIES, val(calories))
+                .set(Nutrient.PROTEIN, val(protein))
+                .set(Nutrient.CARBOHYDRATES, val(carbohydrates))
+                .set(Nutrient.FAT, val(fat))
+                .set(Nutrient.FIBER, val(fiber))
+                .set(Nutrient.VITAMIN_A, val(vitaminA))
+                .set(Nutrient.VITAMIN_C, val(vitaminC))
+                .set(Nutrient.VITAMIN_D, val(vitaminD))
+                .set(Nutrient.VITAMIN_E, val(vitaminE))
+                .set(Nutrient.VITAMIN_K, val(vitaminK))
+                .set(Nutrient.VITAMIN_B12, val(vitaminB12))
+                .set(Nutrient.CALCIUM, val(calcium))
+                .set(Nutrient.IRON, val(iron))
+                .set(Nutrient.MAGNESIUM, val(magnesium))
+                .set(Nutrient.ZINC, val(zinc))
+                .set(Nutrient.POTASSIUM, val(potassium))
+                .values();
+    }
+
+    private static double val(Double v) {
+        return v != null ? v : 0;
+    }
+}
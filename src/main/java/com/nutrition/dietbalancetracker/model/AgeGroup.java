@@ -184,4 +184,16 @@ public enum AgeGroup {
     // - System recommends calcium-rich foods appropriate for 10-year-olds
     // 
     // This ensures every user gets age-appropriate guidance!
+
+    /**
+     * The age group for an age, or null when the age is unknown
+     * or falls outside every group.
+     */
+    public static AgeGroup forAge(Integer age) {
+        if (age == null) return null;
+        if (age >= 1 && age <= 3) return AGE_1_3;
+        if (age >= 9 && age <= 13) return AGE_9_13;
+        if (age >= 14 && age <= 18) return AGE_14_18;
+        return null;
+    }
 }
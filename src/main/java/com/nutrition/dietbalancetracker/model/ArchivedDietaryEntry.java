@@ -0,0 +1,55 @@
+package com.nutrition.dietbalancetracker.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * ARCHIVED DIETARY ENTRY ENTITY
+ * =============================
+ * A dietary entry moved to the cold dietary_entries_archive table by
+ * EntryArchiveService. Same data as DietaryEntry, plus when it was archived.
+ *
+ * Rows are only ever written by the archive job's INSERT ... SELECT and
+ * deleted in bulk, never saved through this entity. It exists so rollup
+ * rebuilds can sum archived days with the same queries as recent ones.
+ *
+ * The table has no foreign keys; foodItem is only joined in queries.
+ */
+@Entity
+@Table(name = "dietary_entries_archive",
+       indexes = @Index(name = "idx_archive_user_consumed", columnList = "user_id, consumed_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedDietaryEntry {
+
+    // Same id it had in dietary_entries
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "food_item_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private FoodItem foodItem;
+
+    @Column(nullable = false)
+    private Double portionSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MealType mealType;
+
+    @Column(nullable = false)
+    private LocalDateTime consumedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
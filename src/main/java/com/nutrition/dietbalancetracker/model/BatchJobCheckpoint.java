@@ -0,0 +1,73 @@
+package com.nutrition.dietbalancetracker.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * BATCH JOB CHECKPOINT ENTITY
+ * ===========================
+ * Remembers how far a batch job got, so a restart resumes instead of
+ * starting over. One row per job.
+ *
+ * Users are processed in ascending id order; lastUserId is the highest id
+ * below which every user has been processed for runDate.
+ */
+@Entity
+@Table(name = "batch_job_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobCheckpoint {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED
+    }
+
+    @Id
+    @Column(length = 50)
+    private String jobName;
+
+    /** The day the run is for (its snapshots end on this date) */
+    @Column(nullable = false)
+    private LocalDate runDate;
+
+    @Column(nullable = false)
+    private Long lastUserId = 0L;
+
+    @Column(nullable = false)
+    private Long usersProcessed = 0L;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.RUNNING;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // ========================================
+    // HELPER METHODS
+    // ========================================
+
+    /** Start a fresh run for a day, forgetting any earlier progress. */
+    public void restart(LocalDate runDate) {
+        this.runDate = runDate;
+        this.lastUserId = 0L;
+        this.usersProcessed = 0L;
+        this.status = Status.RUNNING;
+        this.startedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,37 @@
+package com.nutrition.dietbalancetracker.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * BATCH JOB LEASE ENTITY
+ * ======================
+ * Which node is currently running a batch job, and until when. One row per
+ * job. A node may only run the job while it holds an unexpired lease; it
+ * keeps extending the lease as it works, so if it dies the lease simply
+ * runs out and another node can take over.
+ *
+ * Only ever changed with conditional updates (BatchJobLeaseRepository), so
+ * two nodes can't both believe they hold it.
+ */
+@Entity
+@Table(name = "batch_job_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobLease {
+
+    @Id
+    @Column(length = 50)
+    private String jobName;
+
+    /** The node holding the lease, or null if nobody does */
+    @Column(length = 100)
+    private String owner;
+
+    /** When the lease runs out unless renewed */
+    private LocalDateTime leaseUntil;
+}
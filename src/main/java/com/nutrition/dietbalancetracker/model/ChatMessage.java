@@ -1,5 +1,7 @@
 package com.nutrition.dietbalancetracker.model;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,14 +15,19 @@ import java.time.LocalDateTime;
  * Each row is one message (either user or assistant).
  */
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages",
+       // A user's history in order; created by migration V3
+       indexes = @Index(name = "idx_chat_user_created", columnList = "user_id, created_at, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ChatMessage {
 
+    // Pooled (not IDENTITY) ids let Hibernate batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "chat_message_ids")
+    @GenericGenerator(name = "chat_message_ids", type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = "sequence_name", value = "chat_messages_seq"))
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,112 @@
+package com.nutrition.dietbalancetracker.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DAILY NUTRIENT ROLLUP ENTITY
+ * ============================
+ * One row per user per day holding that day's nutrient totals.
+ *
+ * The row is kept up to date whenever a meal is logged or deleted, so reports
+ * over a date range read one small row per day instead of re-loading and
+ * re-summing every dietary entry (and its food + nutrient profile).
+ *
+ * Nutrient totals are stored as a packed vector indexed by {@link Nutrient}
+ * ordinal; calories and counts per meal type are indexed by {@link MealType}
+ * ordinal.
+ */
+@Entity
+@Table(name = "daily_nutrient_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_rollup_user_date", columnNames = {"user_id", "rollup_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyNutrientRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    /** Number of entries logged on this day */
+    @Column(nullable = false)
+    private Integer mealCount = 0;
+
+    /** Summed nutrients for the day (portion size already applied) */
+    @Convert(converter = DoubleArrayConverter.class)
+    @Column(nullable = false, columnDefinition = "VARBINARY(128)")
+    private double[] nutrientTotals = new double[NutrientVector.SIZE];
+
+    /** Calories per meal type */
+    @Convert(converter = DoubleArrayConverter.class)
+    @Column(nullable = false, columnDefinition = "VARBINARY(32)")
+    private double[] mealTypeCalories = new double[MealType.values().length];
+
+    /** Entry count per meal type */
+    @Convert(converter = DoubleArrayConverter.class)
+    @Column(nullable = false, columnDefinition = "VARBINARY(32)")
+    private double[] mealTypeCounts = new double[MealType.values().length];
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // ========================================
+    // HELPER METHODS
+    // ========================================
+
+    public DailyNutrientRollup(Long userId, LocalDate rollupDate) {
+        this.userId = userId;
+        this.rollupDate = rollupDate;
+    }
+
+    /** Read-only view of the day's totals as a nutrient vector. */
+    public NutrientVector nutrients() {
+        return NutrientVector.wrap(nutrientTotals);
+    }
+
+    public double getMealTypeCalories(MealType type) {
+        return mealTypeCalories[type.ordinal()];
+    }
+
+    public int getMealTypeCount(MealType type) {
+        return (int) mealTypeCounts[type.ordinal()];
+    }
+
+    /**
+     * Add a group of entries to this day: their summed nutrients and how many
+     * entries they were. Pass negated nutrients and a negative count to remove them.
+     *
+     * New arrays are assigned rather than edited in place so that
+     * Hibernate's dirty checking sees the change.
+     */
+    public void apply(NutrientVector nutrients, MealType mealType, int entryCount) {
+        nutrientTotals = NutrientVector.wrap(nutrientTotals.clone())
+                .add(nutrients)
+                .values();
+        if (mealType != null) {
+            double[] calories = mealTypeCalories.clone();
+            double[] counts = mealTypeCounts.clone();
+            calories[mealType.ordinal()] += nutrients.get(Nutrient.CALORIES);
+            counts[mealType.ordinal()] += entryCount;
+            mealTypeCalories = calories;
+            mealTypeCounts = counts;
+        }
+        mealCount += entryCount;
+    }
+}
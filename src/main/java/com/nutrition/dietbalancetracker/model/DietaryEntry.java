@@ -2,6 +2,8 @@ package com.nutrition.dietbalancetracker.model;
 
 // Database and utility imports
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -33,7 +35,11 @@ import java.time.LocalDateTime;
  * These entries are the foundation of our nutrition tracking!
  */
 @Entity
-@Table(name = "dietary_entries")
+@Table(name = "dietary_entries",
+       // Serves history paging (newest first, ties broken by id) and covers the
+       // per-user range scans; created by migration V3
+       indexes = @Index(name = "idx_entry_user_consumed_cover",
+                        columnList = "user_id, consumed_at, id, food_item_id, portion_size, meal_type"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -47,9 +53,13 @@ public class DietaryEntry {
      * ID - Unique identifier for this dietary entry
      * 
      * Each time a user logs food, we create a new entry with a unique ID.
+     * Pooled (not IDENTITY) ids let Hibernate batch the inserts when many
+     * entries are logged at once.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "dietary_entry_ids")
+    @GenericGenerator(name = "dietary_entry_ids", type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = "sequence_name", value = "dietary_entries_seq"))
     private Long id;
     
     // ========================================
@@ -0,0 +1,33 @@
+package com.nutrition.dietbalancetracker.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * DOUBLE ARRAY CONVERTER
+ * ======================
+ * Stores a double[] as a packed binary column (8 bytes per value, big-endian).
+ * Used for nutrient vectors, where one VARBINARY column is much more compact
+ * than 16 separate DOUBLE columns and maps straight onto {@link NutrientVector}.
+ */
+@Converter
+public class DoubleArrayConverter implements AttributeConverter<double[], byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(double[] values) {
+        if (values == null) return null;
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Double.BYTES);
+        buffer.asDoubleBuffer().put(values);
+        return buffer.array();
+    }
+
+    @Override
+    public double[] convertToEntityAttribute(byte[] bytes) {
+        if (bytes == null) return null;
+        double[] values = new double[bytes.length / Double.BYTES];
+        ByteBuffer.wrap(bytes).asDoubleBuffer().get(values);
+        return values;
+    }
+}
@@ -1,10 +1,16 @@
 package com.nutrition.dietbalancetracker.model;
 
 // Database and utility imports
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.ToString;
 import java.time.LocalDateTime;
 
 /**
@@ -29,6 +35,10 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "food_items")
+// Kept in the second-level cache: foods are read on nearly every request
+// and only change when the catalog is reseeded
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "food_items")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -41,10 +51,13 @@ public class FoodItem {
     /**
      * ID - Unique identifier for this food item
      * 
-     * The database automatically generates this number.
+     * Handed out in blocks by PooledSequenceGenerator (not IDENTITY), so
+     * reseeding the catalog can batch its inserts.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "food_item_ids")
+    @GenericGenerator(name = "food_item_ids", type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = "sequence_name", value = "food_items_seq"))
     private Long id;
     
     // ========================================
@@ -126,8 +139,14 @@ public class FoodItem {
      * orphanRemoval = true means: if profile loses its food, delete it
      * 
      * This keeps the data clean - no orphaned nutrient profiles!
+     * 
+     * The profile shares this food's id (@MapsId on NutrientProfile.foodItem),
+     * so Hibernate loads it by that id and serves it from the second-level
+     * cache like the food itself.
      */
     @OneToOne(mappedBy = "foodItem", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private NutrientProfile nutrientProfile;
     
     // ========================================
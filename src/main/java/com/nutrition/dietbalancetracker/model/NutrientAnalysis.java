@@ -1,5 +1,7 @@
 package com.nutrition.dietbalancetracker.model;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,14 +16,18 @@ import java.time.LocalDateTime;
  * Think of this as a "nutrition report card" for a specific date range.
  */
 @Entity
-@Table(name = "nutrient_analyses")
+@Table(name = "nutrient_analyses",
+       indexes = @Index(name = "idx_analysis_user_end", columnList = "user_id, end_date"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class NutrientAnalysis {
     
+    // Pooled ids (see PooledSequenceGenerator) let Hibernate batch the nightly inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "nutrient_analysis_ids")
+    @GenericGenerator(name = "nutrient_analysis_ids", type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = "sequence_name", value = "nutrient_analyses_seq"))
     private Long id;
     
     // Which user is this analysis for?
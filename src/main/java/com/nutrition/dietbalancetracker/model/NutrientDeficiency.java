@@ -1,5 +1,7 @@
 package com.nutrition.dietbalancetracker.model;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,8 +20,11 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class NutrientDeficiency {
     
+    // Pooled ids (see PooledSequenceGenerator) let Hibernate batch the nightly inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "nutrient_deficiency_ids")
+    @GenericGenerator(name = "nutrient_deficiency_ids", type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = "sequence_name", value = "nutrient_deficiencies_seq"))
     private Long id;
     
     // Which analysis detected this deficiency?
@@ -41,6 +46,7 @@ public class NutrientDeficiency {
     private Double recommendedIntake;
     
     // What percentage are they deficient? (0-100)
+    /** How far below the recommendation intake is, in percent (100 = nothing consumed) */
     @Column(nullable = false)
     private Double deficiencyPercentage;
     
@@ -1,8 +1,12 @@
 package com.nutrition.dietbalancetracker.model;
 
 // Database imports
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
@@ -26,6 +30,9 @@ import lombok.AllArgsConstructor;
  */
 @Entity
 @Table(name = "nutrient_profiles")
+// Kept in the second-level cache alongside its food (see FoodItem)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "nutrient_profiles")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,10 +43,13 @@ public class NutrientProfile {
     // ========================================
     
     /**
-     * ID - Unique identifier for this nutrient profile
+     * ID - Same as the id of the food this profile belongs to
+     *
+     * Filled in from foodItem when the profile is saved (see @MapsId below),
+     * so a food's profile can be looked up - and found in the second-level
+     * cache - by the food's id alone.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
     // ========================================
@@ -57,11 +67,14 @@ public class NutrientProfile {
      * - FoodItem = The food itself ("Apple")
      * - NutrientProfile = The nutrition label for that food
      * 
-     * @JoinColumn creates a "food_item_id" column
-     * unique = true ensures one profile per food
+     * @MapsId makes "food_item_id" the primary key as well as the link
+     * to the food, so there can only be one profile per food
      */
-    @OneToOne
-    @JoinColumn(name = "food_item_id", nullable = false, unique = true)
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "food_item_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private FoodItem foodItem;
     
     // ========================================
@@ -0,0 +1,197 @@
+package com.nutrition.dietbalancetracker.model;
+
+import java.util.Arrays;
+
+/**
+ * NUTRIENT VECTOR
+ * ===============
+ * A fixed-size array of primitive doubles, one slot per {@link Nutrient},
+ * indexed by the enum's ordinal.
+ *
+ * This is the shared aggregation kernel used by the analysis, chart and AI
+ * services. Instead of every service keeping its own set of local variables
+ * and calling 16 boxed getters per entry, they all accumulate into one of
+ * these and read the totals back by nutrient.
+ *
+ * None of the arithmetic methods allocate, so a single vector can be reused
+ * for a whole request.
+ */
+public final class NutrientVector {
+
+    /** Number of nutrients we track (= number of slots in every vector). */
+    public static final int SIZE = Nutrient.values().length;
+
+    // Slot indexes, resolved once so the hot loop is plain array arithmetic
+    private static final int CALORIES      = Nutrient.CALORIES.ordinal();
+    private static final int PROTEIN       = Nutrient.PROTEIN.ordinal();
+    private static final int CARBOHYDRATES = Nutrient.CARBOHYDRATES.ordinal();
+    private static final int FAT           = Nutrient.FAT.ordinal();
+    private static final int FIBER         = Nutrient.FIBER.ordinal();
+    private static final int VITAMIN_A     = Nutrient.VITAMIN_A.ordinal();
+    private static final int VITAMIN_C     = Nutrient.VITAMIN_C.ordinal();
+    private static final int VITAMIN_D     = Nutrient.VITAMIN_D.ordinal();
+    private static final int VITAMIN_E     = Nutrient.VITAMIN_E.ordinal();
+    private static final int VITAMIN_K     = Nutrient.VITAMIN_K.ordinal();
+    private static final int VITAMIN_B12   = Nutrient.VITAMIN_B12.ordinal();
+    private static final int CALCIUM       = Nutrient.CALCIUM.ordinal();
+    private static final int IRON          = Nutrient.IRON.ordinal();
+    private static final int MAGNESIUM     = Nutrient.MAGNESIUM.ordinal();
+    private static final int ZINC          = Nutrient.ZINC.ordinal();
+    private static final int POTASSIUM     = Nutrient.POTASSIUM.ordinal();
+
+    private final double[] values;
+
+    /** Create an all-zero vector. */
+    public NutrientVector() {
+        this.values = new double[SIZE];
+    }
+
+    private NutrientVector(double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Wrap an existing array without copying it.
+     * Changes to the vector are visible in the array and vice versa.
+     */
+    public static NutrientVector wrap(double[] values) {
+        if (values.length != SIZE) {
+            throw new IllegalArgumentException("Expected " + SIZE + " nutrient values but got " + values.length);
+        }
+        return new NutrientVector(values);
+    }
+
+    /** Build a vector holding one serving of the given profile. */
+    public static NutrientVector of(NutrientProfile np) {
+        NutrientVector v = new NutrientVector();
+        v.accumulate(np, 1.0);
+        return v;
+    }
+
+    // ========================================
+    // ACCUMULATION
+    // ========================================
+
+    /**
+     * Add {@code portion} servings of a food's nutrient profile to this vector.
+     * Missing (null) values count as zero.
+     */
+    public NutrientVector accumulate(NutrientProfile np, double portion) {
+        if (np == null) return this;
+        double[] v = values;
+        v[CALORIES]      += val(np.getCalories())      * portion;
+        v[PROTEIN]       += val(np.getProtein())       * portion;
+        v[CARBOHYDRATES] += val(np.getCarbohydrates()) * portion;
+        v[FAT]           += val(np.getFat())           * portion;
+        v[FIBER]         += val(np.getFiber())         * portion;
+        v[VITAMIN_A]     += val(np.getVitaminA())      * portion;
+        v[VITAMIN_C]     += val(np.getVitaminC())      * portion;
+        v[VITAMIN_D]     += val(np.getVitaminD())      * portion;
+        v[VITAMIN_E]     += val(np.getVitaminE())      * portion;
+        v[VITAMIN_K]     += val(np.getVitaminK())      * portion;
+        v[VITAMIN_B12]   += val(np.getVitaminB12())    * portion;
+        v[CALCIUM]       += val(np.getCalcium())       * portion;
+        v[IRON]          += val(np.getIron())          * portion;
+        v[MAGNESIUM]     += val(np.getMagnesium())     * portion;
+        v[ZINC]          += val(np.getZinc())          * portion;
+        v[POTASSIUM]     += val(np.getPotassium())     * portion;
+        return this;
+    }
+
+    /**
+     * Add the nutrients of one dietary entry (its food's profile times its portion size).
+     * Entries without a food or profile are ignored; a missing portion counts as one serving.
+     */
+    public NutrientVector accumulate(DietaryEntry entry) {
+        FoodItem food = entry.getFoodItem();
+        if (food == null) return this;
+        double portion = entry.getPortionSize() != null ? entry.getPortionSize() : 1.0;
+        return accumulate(food.getNutrientProfile(), portion);
+    }
+
+    /** Add another vector to this one, slot by slot. */
+    public NutrientVector add(NutrientVector other) {
+        return addScaled(other.values, 0, 1.0);
+    }
+
+    /**
+     * Add {@code factor} times a packed row of {@link #SIZE} values starting at {@code offset}.
+     * Used to accumulate straight from flat arrays without wrapping them first.
+     */
+    public NutrientVector addScaled(double[] source, int offset, double factor) {
+        double[] v = values;
+        for (int i = 0; i < SIZE; i++) {
+            v[i] += source[offset + i] * factor;
+        }
+        return this;
+    }
+
+    /** Add an amount to a single nutrient. */
+    public NutrientVector add(Nutrient nutrient, double amount) {
+        values[nutrient.ordinal()] += amount;
+        return this;
+    }
+
+    // ========================================
+    // SCALING
+    // ========================================
+
+    /** Multiply every nutrient by the same factor. */
+    public NutrientVector scale(double factor) {
+        double[] v = values;
+        for (int i = 0; i < SIZE; i++) {
+            v[i] *= factor;
+        }
+        return this;
+    }
+
+    /** Multiply a single nutrient by a factor (e.g. a BMI adjustment). */
+    public NutrientVector scale(Nutrient nutrient, double factor) {
+        values[nutrient.ordinal()] *= factor;
+        return this;
+    }
+
+    /** Divide every nutrient by the same divisor (e.g. number of days). Dividing by zero is a no-op. */
+    public NutrientVector divide(double divisor) {
+        if (divisor == 0) return this;
+        return scale(1.0 / divisor);
+    }
+
+    // ========================================
+    // ACCESS
+    // ========================================
+
+    public double get(Nutrient nutrient) {
+        return values[nutrient.ordinal()];
+    }
+
+    public NutrientVector set(Nutrient nutrient, double amount) {
+        values[nutrient.ordinal()] = amount;
+        return this;
+    }
+
+    /** Reset every slot to zero so the vector can be reused. */
+    public NutrientVector clear() {
+        Arrays.fill(values, 0);
+        return this;
+    }
+
+    /** Copy of this vector. */
+    public NutrientVector copy() {
+        return new NutrientVector(values.clone());
+    }
+
+    /** The backing array (not a copy). */
+    public double[] values() {
+        return values;
+    }
+
+    private static double val(Double v) {
+        return v != null ? v : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "NutrientVector" + Arrays.toString(values);
+    }
+}
@@ -0,0 +1,72 @@
+package com.nutrition.dietbalancetracker.repository;
+
+import com.nutrition.dietbalancetracker.dto.NutrientTotalsDTO;
+import com.nutrition.dietbalancetracker.model.ArchivedDietaryEntry;
+import com.nutrition.dietbalancetracker.model.FoodItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ARCHIVED DIETARY ENTRY REPOSITORY
+ * =================================
+ * Access to dietary_entries_archive (see EntryArchiveService).
+ */
+@Repository
+public interface ArchivedDietaryEntryRepository extends JpaRepository<ArchivedDietaryEntry, Long> {
+
+    // Copy entries from dietary_entries into the archive; the caller deletes them there afterwards
+    @Modifying
+    @Query(value = """
+        insert into dietary_entries_archive
+               (id, user_id, food_item_id, portion_size, meal_type, consumed_at, created_at, archived_at)
+        select id, user_id, food_item_id, portion_size, meal_type, consumed_at, created_at, :archivedAt
+        from dietary_entries
+        where id in (:ids)
+        """, nativeQuery = true)
+    int copyFromEntries(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // A user's archived nutrient totals per day and meal type, like DietaryEntryRepository.sumByDayAndMealType
+    @Query("""
+        select new com.nutrition.dietbalancetracker.dto.NutrientTotalsDTO(
+               extract(date from a.consumedAt), a.mealType, count(a),
+               sum(coalesce(np.calories, 0.0) * a.portionSize),
+               sum(coalesce(np.protein, 0.0) * a.portionSize),
+               sum(coalesce(np.carbohydrates, 0.0) * a.portionSize),
+               sum(coalesce(np.fat, 0.0) * a.portionSize),
+               sum(coalesce(np.fiber, 0.0) * a.portionSize),
+               sum(coalesce(np.vitaminA, 0.0) * a.portionSize),
+               sum(coalesce(np.vitaminC, 0.0) * a.portionSize),
+               sum(coalesce(np.vitaminD, 0.0) * a.portionSize),
+               sum(coalesce(np.vitaminE, 0.0) * a.portionSize),
+               sum(coalesce(np.vitaminK, 0.0) * a.portionSize),
+               sum(coalesce(np.vitaminB12, 0.0) * a.portionSize),
+               sum(coalesce(np.calcium, 0.0) * a.portionSize),
+               sum(coalesce(np.iron, 0.0) * a.portionSize),
+               sum(coalesce(np.magnesium, 0.0) * a.portionSize),
+               sum(coalesce(np.zinc, 0.0) * a.portionSize),
+               sum(coalesce(np.potassium, 0.0) * a.portionSize))
+        from ArchivedDietaryEntry a
+        join a.foodItem f
+        left join f.nutrientProfile np
+        where a.userId = :userId
+        group by extract(date from a.consumedAt), a.mealType
+        order by extract(date from a.consumedAt)
+        """)
+    List<NutrientTotalsDTO> sumByDayAndMealType(@Param("userId") Long userId);
+
+    // Ids of up to one page of a user's archived entries (for chunked deletes)
+    @Query("select a.id from ArchivedDietaryEntry a where a.userId = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Remove archived entries of foods that are being deleted
+    @Modifying
+    @Query("delete from ArchivedDietaryEntry a where a.foodItem in :foodItems")
+    int deleteByFoodItemIn(@Param("foodItems") Collection<FoodItem> foodItems);
+}
@@ -0,0 +1,43 @@
+package com.nutrition.dietbalancetracker.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.nutrition.dietbalancetracker.model.BatchJobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * BATCH JOB CHECKPOINT REPOSITORY
+ */
+@Repository
+public interface BatchJobCheckpointRepository extends JpaRepository<BatchJobCheckpoint, String> {
+
+    // Move a run's progress forward. Never moves it back, so updates that commit
+    // out of order can't undo each other; returns 0 if the row is already further.
+    @Modifying
+    @Query("""
+        update BatchJobCheckpoint c
+        set c.lastUserId = :lastUserId, c.usersProcessed = :usersProcessed, c.updatedAt = :now
+        where c.jobName = :jobName and c.runDate = :runDate and c.lastUserId < :lastUserId
+        """)
+    int advance(@Param("jobName") String jobName,
+                @Param("runDate") LocalDate runDate,
+                @Param("lastUserId") Long lastUserId,
+                @Param("usersProcessed") Long usersProcessed,
+                @Param("now") LocalDateTime now);
+
+    // Mark a run finished
+    @Modifying
+    @Query("""
+        update BatchJobCheckpoint c set c.status = :status, c.updatedAt = :now
+        where c.jobName = :jobName and c.runDate = :runDate
+        """)
+    int markStatus(@Param("jobName") String jobName,
+                   @Param("runDate") LocalDate runDate,
+                   @Param("status") BatchJobCheckpoint.Status status,
+                   @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,34 @@
+package com.nutrition.dietbalancetracker.repository;
+
+import com.nutrition.dietbalancetracker.model.BatchJobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+/**
+ * BATCH JOB LEASE REPOSITORY
+ */
+@Repository
+public interface BatchJobLeaseRepository extends JpaRepository<BatchJobLease, String> {
+
+    // Take or extend a job's lease if nobody holds it, it ran out, or it is already ours.
+    // Returns 1 if the caller holds the lease afterwards, 0 if another node does.
+    @Modifying
+    @Query("""
+        update BatchJobLease l set l.owner = :owner, l.leaseUntil = :until
+        where l.jobName = :jobName
+          and (l.owner is null or l.owner = :owner or l.leaseUntil < :now)
+        """)
+    int acquire(@Param("jobName") String jobName,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("until") LocalDateTime until);
+
+    // Give the lease up, if it is still ours
+    @Modifying
+    @Query("update BatchJobLease l set l.owner = null, l.leaseUntil = null where l.jobName = :jobName and l.owner = :owner")
+    int release(@Param("jobName") String jobName, @Param("owner") String owner);
+}
@@ -2,7 +2,10 @@ package com.nutrition.dietbalancetracker.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.nutrition.dietbalancetracker.model.ChatMessage;
@@ -18,6 +21,7 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
     /** Get all messages for a user, ordered by creation time */
     List<ChatMessage> findByUserIdOrderByCreatedAtAsc(Long userId);
 
-    /** Delete all messages for a user */
-    void deleteByUserId(Long userId);
+    /** Ids of up to one page of a user's messages (for chunked deletes) */
+    @Query("select m.id from ChatMessage m where m.userId = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
 }
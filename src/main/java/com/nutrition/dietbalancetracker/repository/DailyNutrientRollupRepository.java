@@ -0,0 +1,57 @@
+package com.nutrition.dietbalancetracker.repository;
+
+import com.nutrition.dietbalancetracker.model.DailyNutrientRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * DAILY NUTRIENT ROLLUP REPOSITORY
+ */
+@Repository
+public interface DailyNutrientRollupRepository extends JpaRepository<DailyNutrientRollup, Long> {
+
+    // Lock a user's row for one day while it is being updated
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<DailyNutrientRollup> findByUserIdAndRollupDate(Long userId, LocalDate rollupDate);
+
+    // Create an empty row for a user's day unless it exists. One atomic statement,
+    // so two first writes for the same day can't both insert (see DailyRollupService).
+    @Modifying
+    @Query(value = """
+        insert into daily_nutrient_rollups
+               (user_id, rollup_date, meal_count, nutrient_totals, meal_type_calories, meal_type_counts, updated_at)
+        values (:userId, :rollupDate, 0, :nutrientTotals, :mealTypeValues, :mealTypeValues, :now)
+        on duplicate key update user_id = user_id
+        """, nativeQuery = true)
+    int insertEmptyIfAbsent(@Param("userId") Long userId,
+                            @Param("rollupDate") LocalDate rollupDate,
+                            @Param("nutrientTotals") byte[] nutrientTotals,
+                            @Param("mealTypeValues") byte[] mealTypeValues,
+                            @Param("now") LocalDateTime now);
+
+    // Rows for a user within a date range (inclusive), oldest first
+    List<DailyNutrientRollup> findByUserIdAndRollupDateBetweenOrderByRollupDateAsc(
+        Long userId, LocalDate from, LocalDate to);
+
+    // Rows for several users within a date range (inclusive)
+    List<DailyNutrientRollup> findByUserIdInAndRollupDateBetween(
+        Collection<Long> userIds, LocalDate from, LocalDate to);
+
+    // Every row for a user, oldest first
+    List<DailyNutrientRollup> findByUserIdOrderByRollupDateAsc(Long userId);
+
+    // Remove every rollup row for a user
+    @Modifying
+    @Query("delete from DailyNutrientRollup r where r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
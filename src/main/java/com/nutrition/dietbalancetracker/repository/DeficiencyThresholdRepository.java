@@ -0,0 +1,20 @@
+package com.nutrition.dietbalancetracker.repository;
+
+import com.nutrition.dietbalancetracker.model.DeficiencyThreshold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * DEFICIENCY THRESHOLD REPOSITORY
+ */
+@Repository
+public interface DeficiencyThresholdRepository extends JpaRepository<DeficiencyThreshold, Long> {
+
+    // Forget which admin last edited thresholds (before that admin's account is deleted)
+    @Modifying
+    @Query("update DeficiencyThreshold t set t.updatedBy = null where t.updatedBy.id = :userId")
+    int clearUpdatedBy(@Param("userId") Long userId);
+}
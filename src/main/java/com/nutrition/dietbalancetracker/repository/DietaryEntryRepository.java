@@ -1,10 +1,18 @@
 package com.nutrition.dietbalancetracker.repository;
 
+import com.nutrition.dietbalancetracker.dto.EntryTupleDTO;
+import com.nutrition.dietbalancetracker.dto.FoodCountDTO;
+import com.nutrition.dietbalancetracker.dto.NutrientTotalsDTO;
 import com.nutrition.dietbalancetracker.model.DietaryEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * DIETARY ENTRY REPOSITORY
@@ -19,6 +27,132 @@ public interface DietaryEntryRepository extends JpaRepository<DietaryEntry, Long
     List<DietaryEntry> findByUserIdAndConsumedAtBetweenOrderByConsumedAtDesc(
         Long userId, LocalDateTime start, LocalDateTime end);
 
+    // The "WithFood" variants load each entry's user, food and nutrient profile
+    // in the same select. Without them Hibernate issues extra selects per entry
+    // for the eager @ManyToOne food and its (never lazy) mappedBy nutrient profile,
+    // and for the user's mappedBy health data - whenever the second-level cache
+    // doesn't already hold them.
+    // Use these whenever the entries' food or nutrients are read.
+
+    @EntityGraph(attributePaths = {"user", "user.healthData", "foodItem", "foodItem.nutrientProfile"})
+    List<DietaryEntry> findWithFoodByUserIdAndConsumedAtBetweenOrderByConsumedAtDesc(
+        Long userId, LocalDateTime start, LocalDateTime end);
+
+    @EntityGraph(attributePaths = {"user", "user.healthData", "foodItem", "foodItem.nutrientProfile"})
+    Optional<DietaryEntry> findWithFoodById(Long id);
+
+    // History pages, newest first, keyed on (consumedAt, id) so the database can
+    // seek straight to the cursor instead of skipping OFFSET rows
+
+    @EntityGraph(attributePaths = {"user", "user.healthData", "foodItem", "foodItem.nutrientProfile"})
+    List<DietaryEntry> findWithFoodByUserIdOrderByConsumedAtDescIdDesc(Long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"user", "user.healthData", "foodItem", "foodItem.nutrientProfile"})
+    @Query("""
+        select e from DietaryEntry e
+        where e.user.id = :userId
+          and (e.consumedAt < :consumedAt or (e.consumedAt = :consumedAt and e.id < :id))
+        order by e.consumedAt desc, e.id desc
+        """)
+    List<DietaryEntry> findPageBefore(@Param("userId") Long userId,
+                                      @Param("consumedAt") LocalDateTime consumedAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    // Just (food id, portion, time, meal type) for entries in [start, end), newest first;
+    // nutrients come from the in-memory FoodNutrientMatrix
+    @Query("""
+        select new com.nutrition.dietbalancetracker.dto.EntryTupleDTO(
+               e.foodItem.id, e.portionSize, e.consumedAt, e.mealType)
+        from DietaryEntry e
+        where e.user.id = :userId and e.consumedAt >= :start and e.consumedAt < :end
+        order by e.consumedAt desc
+        """)
+    List<EntryTupleDTO> findTuples(@Param("userId") Long userId,
+                                   @Param("start") LocalDateTime start,
+                                   @Param("end") LocalDateTime end);
+
+    // Per-day, per-meal-type nutrient sums computed by the database (portion size applied)
+    @Query("""
+        select new com.nutrition.dietbalancetracker.dto.NutrientTotalsDTO(
+               extract(date from e.consumedAt), e.mealType, count(e),
+               sum(coalesce(np.calories, 0.0) * e.portionSize),
+               sum(coalesce(np.protein, 0.0) * e.portionSize),
+               sum(coalesce(np.carbohydrates, 0.0) * e.portionSize),
+               sum(coalesce(np.fat, 0.0) * e.portionSize),
+               sum(coalesce(np.fiber, 0.0) * e.portionSize),
+               sum(coalesce(np.vitaminA, 0.0) * e.portionSize),
+               sum(coalesce(np.vitaminC, 0.0) * e.portionSize),
+               sum(coalesce(np.vitaminD, 0.0) * e.portionSize),
+               sum(coalesce(np.vitaminE, 0.0) * e.portionSize),
+               sum(coalesce(np.vitaminK, 0.0) * e.portionSize),
+               sum(coalesce(np.vitaminB12, 0.0) * e.portionSize),
+               sum(coalesce(np.calcium, 0.0) * e.portionSize),
+               sum(coalesce(np.iron, 0.0) * e.portionSize),
+               sum(coalesce(np.magnesium, 0.0) * e.portionSize),
+               sum(coalesce(np.zinc, 0.0) * e.portionSize),
+               sum(coalesce(np.potassium, 0.0) * e.portionSize))
+        from DietaryEntry e
+        join e.foodItem f
+        left join f.nutrientProfile np
+        where e.user.id = :userId and e.consumedAt >= :start and e.consumedAt < :end
+        group by extract(date from e.consumedAt), e.mealType
+        order by extract(date from e.consumedAt)
+        """)
+    List<NutrientTotalsDTO> sumByDayAndMealType(@Param("userId") Long userId,
+                                                @Param("start") LocalDateTime start,
+                                                @Param("end") LocalDateTime end);
+
+    // How often each food has been logged, across all users
+    @Query("select new com.nutrition.dietbalancetracker.dto.FoodCountDTO(e.foodItem.id, count(e)) from DietaryEntry e group by e.foodItem.id")
+    List<FoodCountDTO> countByFood();
+
+    // Per-food nutrient sums, most frequently logged foods first
+    @Query("""
+        select new com.nutrition.dietbalancetracker.dto.NutrientTotalsDTO(
+               f.id, f.name, count(e),
+               sum(coalesce(np.calories, 0.0) * e.portionSize),
+               sum(coalesce(np.protein, 0.0) * e.portionSize),
+               sum(coalesce(np.carbohydrates, 0.0) * e.portionSize),
+               sum(coalesce(np.fat, 0.0) * e.portionSize),
+               sum(coalesce(np.fiber, 0.0) * e.portionSize),
+               sum(coalesce(np.vitaminA, 0.0) * e.portionSize),
+               sum(coalesce(np.vitaminC, 0.0) * e.portionSize),
+               sum(coalesce(np.vitaminD, 0.0) * e.portionSize),
+               sum(coalesce(np.vitaminE, 0.0) * e.portionSize),
+               sum(coalesce(np.vitaminK, 0.0) * e.portionSize),
+               sum(coalesce(np.vitaminB12, 0.0) * e.portionSize),
+               sum(coalesce(np.calcium, 0.0) * e.portionSize),
+               sum(coalesce(np.iron, 0.0) * e.portionSize),
+               sum(coalesce(np.magnesium, 0.0) * e.portionSize),
+               sum(coalesce(np.zinc, 0.0) * e.portionSize),
+               sum(coalesce(np.potassium, 0.0) * e.portionSize))
+        from DietaryEntry e
+        join e.foodItem f
+        left join f.nutrientProfile np
+        where e.user.id = :userId and e.consumedAt >= :start and e.consumedAt < :end
+        group by f.id, f.name
+        order by count(e) desc
+        """)
+    List<NutrientTotalsDTO> sumByFood(@Param("userId") Long userId,
+                                      @Param("start") LocalDateTime start,
+                                      @Param("end") LocalDateTime end,
+                                      Pageable pageable);
+
+    // Ids of up to one page of a user's entries (for chunked deletes)
+    @Query("select e.id from DietaryEntry e where e.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Ids of up to one page of a user's entries consumed before a cut-off, oldest first (for archiving)
+    @Query("""
+        select e.id from DietaryEntry e
+        where e.user.id = :userId and e.consumedAt < :before
+        order by e.consumedAt, e.id
+        """)
+    List<Long> findIdsByUserIdBefore(@Param("userId") Long userId,
+                                     @Param("before") LocalDateTime before,
+                                     Pageable pageable);
+
     // Delete all dietary entries referencing any of the given food items
     void deleteByFoodItemIn(java.util.List<com.nutrition.dietbalancetracker.model.FoodItem> foodItems);
 }
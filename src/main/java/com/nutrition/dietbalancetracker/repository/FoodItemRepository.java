@@ -1,9 +1,16 @@
 package com.nutrition.dietbalancetracker.repository;
 
+import com.nutrition.dietbalancetracker.dto.CategoryCountDTO;
+import com.nutrition.dietbalancetracker.dto.FoodCatalogStampDTO;
 import com.nutrition.dietbalancetracker.model.FoodItem;
 import com.nutrition.dietbalancetracker.model.FoodCategory;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -15,12 +22,44 @@ public interface FoodItemRepository extends JpaRepository<FoodItem, Long> {
     // Search foods by name (case-insensitive, partial match)
     List<FoodItem> findByNameContainingIgnoreCaseAndIsActiveTrue(String name);
     
-    // Find all active foods
+    // Find all active foods (with nutrient profiles, in one select)
+    @EntityGraph(attributePaths = "nutrientProfile")
     List<FoodItem> findByIsActiveTrue();
     
-    // Find foods by category
+    // Find foods by category (with nutrient profiles, in one select)
+    @EntityGraph(attributePaths = "nutrientProfile")
     List<FoodItem> findByCategoryAndIsActiveTrue(FoodCategory category);
 
+    // Load specific foods with their nutrient profiles, in one select
+    @EntityGraph(attributePaths = "nutrientProfile")
+    List<FoodItem> findByIdInOrderByIdAsc(Collection<Long> ids);
+
     // Find all system-seeded (non-custom) foods
     List<FoodItem> findByIsCustomFalse();
+
+    // Every food (active or not) with its nutrient profile, in one select
+    @EntityGraph(attributePaths = "nutrientProfile")
+    @Query("select f from FoodItem f order by f.id")
+    List<FoodItem> findAllWithProfile();
+
+    // Fingerprint of the catalog, used to detect changes made by other nodes
+    @Query("""
+        select new com.nutrition.dietbalancetracker.dto.FoodCatalogStampDTO(
+               count(f), coalesce(sum(f.version), 0L), coalesce(max(f.id), 0L),
+               sum(case when f.isActive = true then 1L else 0L end))
+        from FoodItem f
+        """)
+    FoodCatalogStampDTO catalogStamp();
+
+    // Detach a user's custom foods from them (other users' entries may still use the foods)
+    @Modifying
+    @Query("update FoodItem f set f.createdBy = null where f.createdBy.id = :userId")
+    int clearCreatedBy(@Param("userId") Long userId);
+
+    // Number of active foods per category (categories without any are omitted)
+    @Query("""
+        select new com.nutrition.dietbalancetracker.dto.CategoryCountDTO(f.category, count(f))
+        from FoodItem f where f.isActive = true group by f.category
+        """)
+    List<CategoryCountDTO> countActiveByCategory();
 }
@@ -2,6 +2,9 @@ package com.nutrition.dietbalancetracker.repository;
 
 import com.nutrition.dietbalancetracker.model.HealthData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -13,4 +16,21 @@ public interface HealthDataRepository extends JpaRepository<HealthData, Long> {
     
     // Find health data by user ID
     Optional<HealthData> findByUserId(Long userId);
+
+    // Removing a user's health data takes three statements: the allergy and
+    // restriction collection tables first (JPQL bulk deletes skip them), then the row
+
+    @Modifying
+    @Query(value = "delete from allergies where health_data_id in (select id from health_data where user_id = :userId)",
+           nativeQuery = true)
+    int deleteAllergiesByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from dietary_restrictions where health_data_id in (select id from health_data where user_id = :userId)",
+           nativeQuery = true)
+    int deleteRestrictionsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from HealthData h where h.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
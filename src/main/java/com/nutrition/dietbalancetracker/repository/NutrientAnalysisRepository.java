@@ -0,0 +1,36 @@
+package com.nutrition.dietbalancetracker.repository;
+
+import com.nutrition.dietbalancetracker.model.NutrientAnalysis;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * NUTRIENT ANALYSIS REPOSITORY
+ */
+@Repository
+public interface NutrientAnalysisRepository extends JpaRepository<NutrientAnalysis, Long> {
+
+    // Most recent snapshot for a user
+    Optional<NutrientAnalysis> findFirstByUserIdOrderByEndDateDescCalculatedAtDesc(Long userId);
+
+    // Remove the given users' snapshots ending on a date, plus any older than the retention cut-off
+    @Modifying
+    @Query("""
+        delete from NutrientAnalysis a
+        where a.user.id in :userIds and (a.endDate = :endDate or a.endDate < :keepFrom)
+        """)
+    int deleteSnapshots(@Param("userIds") Collection<Long> userIds,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("keepFrom") LocalDate keepFrom);
+
+    // Remove every snapshot for a user
+    @Modifying
+    @Query("delete from NutrientAnalysis a where a.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
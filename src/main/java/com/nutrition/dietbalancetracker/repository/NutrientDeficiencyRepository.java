@@ -0,0 +1,38 @@
+package com.nutrition.dietbalancetracker.repository;
+
+import com.nutrition.dietbalancetracker.model.NutrientDeficiency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * NUTRIENT DEFICIENCY REPOSITORY
+ */
+@Repository
+public interface NutrientDeficiencyRepository extends JpaRepository<NutrientDeficiency, Long> {
+
+    // Deficiencies found by one analysis, most severe first
+    List<NutrientDeficiency> findByAnalysisIdOrderByDeficiencyPercentageDesc(Long analysisId);
+
+    // Must run before NutrientAnalysisRepository.deleteSnapshots with the same arguments
+    @Modifying
+    @Query("""
+        delete from NutrientDeficiency d
+        where d.analysis.id in (
+            select a.id from NutrientAnalysis a
+            where a.user.id in :userIds and (a.endDate = :endDate or a.endDate < :keepFrom))
+        """)
+    int deleteSnapshots(@Param("userIds") Collection<Long> userIds,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("keepFrom") LocalDate keepFrom);
+
+    // Remove every deficiency recorded for a user
+    @Modifying
+    @Query("delete from NutrientDeficiency d where d.analysis.id in (select a.id from NutrientAnalysis a where a.user.id = :userId)")
+    int deleteByUserId(@Param("userId") Long userId);
+}
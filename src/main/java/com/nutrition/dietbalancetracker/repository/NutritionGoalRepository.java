@@ -2,6 +2,9 @@ package com.nutrition.dietbalancetracker.repository;
 
 import com.nutrition.dietbalancetracker.model.NutritionGoal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -13,5 +16,8 @@ public interface NutritionGoalRepository extends JpaRepository<NutritionGoal, Lo
 
     Optional<NutritionGoal> findByUserId(Long userId);
 
-    void deleteByUserId(Long userId);
+    // Remove a user's goals in one statement
+    @Modifying
+    @Query("delete from NutritionGoal g where g.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
@@ -1,8 +1,13 @@
 package com.nutrition.dietbalancetracker.repository;
 
 import com.nutrition.dietbalancetracker.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -25,4 +30,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     // Check if email already exists
     boolean existsByEmail(String email);
+
+    // Next page of user ids after a given id (keyset paging for batch jobs)
+    @Query("select u.id from User u where u.id > :afterId order by u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Users with their health data in one select (avoids one extra select per user)
+    @Query("select u from User u left join fetch u.healthData where u.id in :ids")
+    List<User> findAllWithHealthDataByIdIn(@Param("ids") Collection<Long> ids);
 }
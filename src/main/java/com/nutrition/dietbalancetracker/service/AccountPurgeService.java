@@ -0,0 +1,156 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nutrition.dietbalancetracker.repository.ArchivedDietaryEntryRepository;
+import com.nutrition.dietbalancetracker.repository.ChatMessageRepository;
+import com.nutrition.dietbalancetracker.repository.DailyNutrientRollupRepository;
+import com.nutrition.dietbalancetracker.repository.DeficiencyThresholdRepository;
+import com.nutrition.dietbalancetracker.repository.DietaryEntryRepository;
+import com.nutrition.dietbalancetracker.repository.FoodItemRepository;
+import com.nutrition.dietbalancetracker.repository.HealthDataRepository;
+import com.nutrition.dietbalancetracker.repository.NutrientAnalysisRepository;
+import com.nutrition.dietbalancetracker.repository.NutrientDeficiencyRepository;
+import com.nutrition.dietbalancetracker.repository.NutritionGoalRepository;
+import com.nutrition.dietbalancetracker.repository.UserRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ACCOUNT PURGE SERVICE
+ * =====================
+ * Deletes a user's data with set-based statements, never loading the rows.
+ *
+ * - Dietary entries (hot and archived) and chat messages can pile up for years, so they are
+ *   deleted account.purge.chunk-size rows at a time, each chunk in its own
+ *   short transaction. No single delete holds locks for long or builds a
+ *   huge transaction.
+ * - Everything else is a handful of rows per user and is removed in one
+ *   final transaction together with the user row.
+ *
+ * A purge that fails part-way can simply be run again; it carries on with
+ * whatever is left.
+ */
+@Service
+@Slf4j
+public class AccountPurgeService {
+
+    private final UserRepository userRepository;
+    private final DietaryEntryRepository dietaryEntryRepository;
+    private final ArchivedDietaryEntryRepository archivedEntryRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final NutritionGoalRepository nutritionGoalRepository;
+    private final HealthDataRepository healthDataRepository;
+    private final DailyNutrientRollupRepository dailyNutrientRollupRepository;
+    private final NutrientAnalysisRepository nutrientAnalysisRepository;
+    private final NutrientDeficiencyRepository nutrientDeficiencyRepository;
+    private final FoodItemRepository foodItemRepository;
+    private final DeficiencyThresholdRepository deficiencyThresholdRepository;
+    private final AnalysisCache analysisCache;
+    private final RollupPrefixIndex rollupPrefixIndex;
+    private final UserFoodAffinity userFoodAffinity;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    public AccountPurgeService(UserRepository userRepository,
+                               DietaryEntryRepository dietaryEntryRepository,
+                               ArchivedDietaryEntryRepository archivedEntryRepository,
+                               ChatMessageRepository chatMessageRepository,
+                               NutritionGoalRepository nutritionGoalRepository,
+                               HealthDataRepository healthDataRepository,
+                               DailyNutrientRollupRepository dailyNutrientRollupRepository,
+                               NutrientAnalysisRepository nutrientAnalysisRepository,
+                               NutrientDeficiencyRepository nutrientDeficiencyRepository,
+                               FoodItemRepository foodItemRepository,
+                               DeficiencyThresholdRepository deficiencyThresholdRepository,
+                               AnalysisCache analysisCache,
+                               RollupPrefixIndex rollupPrefixIndex,
+                               UserFoodAffinity userFoodAffinity,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${account.purge.chunk-size:5000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.dietaryEntryRepository = dietaryEntryRepository;
+        this.archivedEntryRepository = archivedEntryRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.nutritionGoalRepository = nutritionGoalRepository;
+        this.healthDataRepository = healthDataRepository;
+        this.dailyNutrientRollupRepository = dailyNutrientRollupRepository;
+        this.nutrientAnalysisRepository = nutrientAnalysisRepository;
+        this.nutrientDeficiencyRepository = nutrientDeficiencyRepository;
+        this.foodItemRepository = foodItemRepository;
+        this.deficiencyThresholdRepository = deficiencyThresholdRepository;
+        this.analysisCache = analysisCache;
+        this.rollupPrefixIndex = rollupPrefixIndex;
+        this.userFoodAffinity = userFoodAffinity;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Delete a user and everything that belongs to them.
+     * Must not be called inside a transaction, or the chunks would all join it.
+     */
+    public void deleteAccount(Long userId) {
+        long entries = deleteInChunks(
+                page -> dietaryEntryRepository.findIdsByUserId(userId, page),
+                dietaryEntryRepository::deleteAllByIdInBatch);
+        entries += deleteInChunks(
+                page -> archivedEntryRepository.findIdsByUserId(userId, page),
+                archivedEntryRepository::deleteAllByIdInBatch);
+        long messages = clearChatHistory(userId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            nutritionGoalRepository.deleteByUserId(userId);
+            healthDataRepository.deleteAllergiesByUserId(userId);
+            healthDataRepository.deleteRestrictionsByUserId(userId);
+            healthDataRepository.deleteByUserId(userId);
+            dailyNutrientRollupRepository.deleteByUserId(userId);
+            nutrientDeficiencyRepository.deleteByUserId(userId);
+            nutrientAnalysisRepository.deleteByUserId(userId);
+            foodItemRepository.clearCreatedBy(userId);
+            deficiencyThresholdRepository.clearUpdatedBy(userId);
+            userRepository.deleteAllByIdInBatch(List.of(userId));
+
+            rollupPrefixIndex.evict(userId);
+            userFoodAffinity.evict(userId);
+            analysisCache.invalidateUser(userId);
+        });
+        log.info("Deleted account {} ({} dietary entries, {} chat messages)", userId, entries, messages);
+    }
+
+    /** Delete all of a user's chat messages, a chunk at a time. Returns how many were deleted. */
+    public long clearChatHistory(Long userId) {
+        return deleteInChunks(
+                page -> chatMessageRepository.findIdsByUserId(userId, page),
+                chatMessageRepository::deleteAllByIdInBatch);
+    }
+
+    /**
+     * Repeatedly pick up to chunkSize ids and delete them with one statement,
+     * each round in its own transaction, until none are left.
+     */
+    private long deleteInChunks(Function<Pageable, List<Long>> nextIds, Consumer<List<Long>> deleteIds) {
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = nextIds.apply(chunk);
+                if (!ids.isEmpty()) deleteIds.accept(ids);
+                return ids.size();
+            });
+            total += deleted;
+        } while (deleted == chunkSize);
+        return total;
+    }
+}
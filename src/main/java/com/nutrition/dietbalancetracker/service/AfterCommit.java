@@ -0,0 +1,29 @@
+package com.nutrition.dietbalancetracker.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * AFTER COMMIT
+ * ============
+ * Defers an update of in-memory state until the surrounding transaction
+ * commits, so nothing reads a change that may still be rolled back. With no
+ * transaction active the action runs straight away.
+ */
+final class AfterCommit {
+
+    private AfterCommit() { }
+
+    static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -15,7 +15,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import com.nutrition.dietbalancetracker.model.DietaryEntry;
+import com.nutrition.dietbalancetracker.dto.EntryTupleDTO;
+import com.nutrition.dietbalancetracker.model.Nutrient;
+import com.nutrition.dietbalancetracker.model.NutrientVector;
 import com.nutrition.dietbalancetracker.model.User;
 import com.nutrition.dietbalancetracker.repository.DietaryEntryRepository;
 import com.nutrition.dietbalancetracker.repository.UserRepository;
@@ -37,6 +39,7 @@ public class AiService {
 
     private final DietaryEntryRepository dietaryEntryRepository;
     private final UserRepository userRepository;
+    private final FoodNutrientMatrix foodNutrientMatrix;
 
     @Value("${ollama.base-url:http://localhost:11434}")
     private String ollamaBaseUrl;
@@ -149,39 +152,35 @@ public class AiService {
         try {
             LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
             LocalDateTime endOfDay = startOfDay.plusDays(1);
-            List<DietaryEntry> todayEntries =
-                    dietaryEntryRepository.findByUserIdAndConsumedAtBetweenOrderByConsumedAtDesc(userId, startOfDay, endOfDay);
+            List<EntryTupleDTO> todayEntries = dietaryEntryRepository.findTuples(userId, startOfDay, endOfDay);
 
             if (todayEntries.isEmpty()) {
                 return "The user has not logged any meals today.";
             }
 
             StringBuilder ctx = new StringBuilder("Today's logged meals:\n");
-            double totalCal = 0, totalPro = 0, totalCarb = 0, totalFat = 0;
-
-            for (DietaryEntry entry : todayEntries) {
-                String name = entry.getFoodItem() != null ? entry.getFoodItem().getName() : "Unknown";
-                double portions = entry.getPortionSize();
+            NutrientVector item = new NutrientVector();
+            NutrientVector totals = new NutrientVector();
+            FoodNutrientMatrix.Snapshot foods = foodNutrientMatrix.current();
+
+            for (EntryTupleDTO entry : todayEntries) {
+                int row = foods.rowOf(entry.getFoodItemId());
+                String name = row >= 0 ? foods.name(row) : "Unknown";
+                double portions = entry.portion();
                 String mealType = entry.getMealType() != null ? entry.getMealType().name() : "OTHER";
 
-                double cal = 0, pro = 0, carb = 0, fat = 0;
-                if (entry.getFoodItem() != null && entry.getFoodItem().getNutrientProfile() != null) {
-                    var np = entry.getFoodItem().getNutrientProfile();
-                    cal = np.getCalories() * portions;
-                    pro = np.getProtein() * portions;
-                    carb = np.getCarbohydrates() * portions;
-                    fat = np.getFat() * portions;
-                }
+                item.clear();
+                foods.accumulate(item, entry.getFoodItemId(), portions);
+                totals.add(item);
 
                 ctx.append(String.format("- %s (%.1f servings, %s): %.0f kcal, %.1fg protein, %.1fg carbs, %.1fg fat%n",
-                        name, portions, mealType, cal, pro, carb, fat));
-                totalCal += cal;
-                totalPro += pro;
-                totalCarb += carb;
-                totalFat += fat;
+                        name, portions, mealType, item.get(Nutrient.CALORIES), item.get(Nutrient.PROTEIN),
+                        item.get(Nutrient.CARBOHYDRATES), item.get(Nutrient.FAT)));
             }
 
-            ctx.append(String.format("%nDaily totals so far: %.0f kcal, %.1fg protein, %.1fg carbs, %.1fg fat", totalCal, totalPro, totalCarb, totalFat));
+            ctx.append(String.format("%nDaily totals so far: %.0f kcal, %.1fg protein, %.1fg carbs, %.1fg fat",
+                    totals.get(Nutrient.CALORIES), totals.get(Nutrient.PROTEIN),
+                    totals.get(Nutrient.CARBOHYDRATES), totals.get(Nutrient.FAT)));
             return ctx.toString();
 
         } catch (Exception e) {
@@ -0,0 +1,101 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * ANALYSIS CACHE
+ * ==============
+ * Remembers computed analysis and chart results per user, so frontend polls
+ * don't recompute identical numbers when nothing has changed.
+ *
+ * Every user has a data version. It is part of each cache key and is bumped
+ * whenever something that affects their results changes (a meal logged or
+ * deleted, a profile update that changes BMI-adjusted RDAs). Old entries are
+ * then simply never looked up again and age out through the size/TTL bounds.
+ *
+ * The versions are bounded the same way: a user not seen for the TTL is
+ * forgotten, and gets a brand-new version when they come back, so none of
+ * their old entries can match again.
+ */
+@Component
+public class AnalysisCache {
+
+    private record Key(Long userId, String range, long version) { }
+
+    private final Cache<Key, Object> cache;
+
+    // Current data version per user; a missing user is given a new one
+    private final Cache<Long, Long> userVersions;
+
+    // Source of new versions, shared across users so a version is never reused
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    public AnalysisCache(@Value("${analysis.cache.max-size:10000}") long maxSize,
+                         @Value("${analysis.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.userVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Return the cached result for (user, range, current version), computing it on a miss.
+     *
+     * @param range identifies what was computed, e.g. "week:2024-02-18" or "charts:30:2024-02-18"
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String range, Supplier<T> loader) {
+        Key key = new Key(userId, range, userVersions.get(userId, id -> versionSequence.incrementAndGet()));
+        return (T) cache.get(key, k -> loader.get());
+    }
+
+    /**
+     * Mark a user's cached results as stale.
+     * Inside a transaction the bump happens after commit, so a concurrent read
+     * can't cache pre-commit data under the new version.
+     */
+    public void invalidateUser(Long userId) {
+        if (userId == null) return;
+        AfterCommit.run(() -> bump(userId));
+    }
+
+    /** Drop everything (e.g. after the food catalog has been reseeded). */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private void bump(Long userId) {
+        userVersions.put(userId, versionSequence.incrementAndGet());
+    }
+
+    /** Hit/miss/eviction counters for sizing the cache. */
+    public Map<String, Object> stats() {
+        CacheStats s = cache.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.estimatedSize());
+        stats.put("hitCount", s.hitCount());
+        stats.put("missCount", s.missCount());
+        stats.put("hitRate", s.hitRate());
+        stats.put("evictionCount", s.evictionCount());
+        stats.put("loadCount", s.loadCount());
+        stats.put("averageLoadMillis", s.averageLoadPenalty() / 1_000_000.0);
+        stats.put("trackedUsers", userVersions.estimatedSize());
+        return stats;
+    }
+}
@@ -0,0 +1,82 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nutrition.dietbalancetracker.model.BatchJobLease;
+import com.nutrition.dietbalancetracker.repository.BatchJobLeaseRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * BATCH JOB LEASE SERVICE
+ * =======================
+ * Makes sure a batch job runs on one node at a time, even when several
+ * instances of the app share the database and all fire the same cron.
+ *
+ * The lease is a row in batch_job_leases taken with a conditional UPDATE:
+ * the database decides who wins, so there is no window where two nodes
+ * both hold it. The holder renews it as it works (batch.lease-seconds at a
+ * time) and stops if a renewal fails; a node that dies just lets it expire.
+ * Keep the lease much longer than any clock difference between nodes.
+ */
+@Service
+@Slf4j
+public class BatchJobLeaseService {
+
+    private final BatchJobLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long leaseSeconds;
+
+    // Unique per running instance, readable in the table ("pid@host/random")
+    private final String owner;
+
+    public BatchJobLeaseService(BatchJobLeaseRepository leaseRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${batch.lease-seconds:600}") long leaseSeconds) {
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseSeconds = leaseSeconds;
+        String node = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+        this.owner = node.length() > 100 ? node.substring(node.length() - 100) : node;
+    }
+
+    /**
+     * Take the job's lease. Returns false if another node holds it.
+     * Must not be called inside a transaction.
+     */
+    public boolean acquire(String jobName) {
+        if (!leaseRepository.existsById(jobName)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> leaseRepository.saveAndFlush(new BatchJobLease(jobName, null, null)));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the row at the same moment - fine, it exists now
+            }
+        }
+        return renew(jobName);
+    }
+
+    /** Extend the job's lease. Returns false if it expired and another node took it. */
+    public boolean renew(String jobName) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = transactionTemplate.execute(status ->
+                leaseRepository.acquire(jobName, owner, now, now.plusSeconds(leaseSeconds)));
+        return updated != null && updated == 1;
+    }
+
+    /** Give the lease up so another node doesn't have to wait for it to expire. */
+    public void release(String jobName) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> leaseRepository.release(jobName, owner));
+        } catch (RuntimeException e) {
+            log.warn("Could not release the {} lease, it will expire on its own: {}", jobName, e.getMessage());
+        }
+    }
+}
@@ -2,17 +2,20 @@ package com.nutrition.dietbalancetracker.service;
 
 import com.nutrition.dietbalancetracker.dto.ChartDataDTO;
 import com.nutrition.dietbalancetracker.dto.ChartDataDTO.*;
-import com.nutrition.dietbalancetracker.model.DietaryEntry;
-import com.nutrition.dietbalancetracker.model.NutrientProfile;
+import com.nutrition.dietbalancetracker.dto.NutrientTotalsDTO;
+import com.nutrition.dietbalancetracker.model.DailyNutrientRollup;
+import com.nutrition.dietbalancetracker.model.MealType;
+import com.nutrition.dietbalancetracker.model.Nutrient;
+import com.nutrition.dietbalancetracker.model.NutrientVector;
 import com.nutrition.dietbalancetracker.repository.DietaryEntryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.TextStyle;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * CHART DATA SERVICE
@@ -24,20 +27,32 @@ import java.util.stream.Collectors;
 public class ChartDataService {
 
     private final DietaryEntryRepository entryRepo;
-
-    /* -------- RDA constants (adult average) -------- */
-    private static final double RDA_PROTEIN   = 50;
-    private static final double RDA_CARBS     = 300;
-    private static final double RDA_FAT       = 65;
-    private static final double RDA_FIBER     = 25;
-    private static final double RDA_VIT_A     = 900;   // mcg
-    private static final double RDA_VIT_C     = 90;    // mg
-    private static final double RDA_VIT_D     = 20;    // mcg
-    private static final double RDA_CALCIUM   = 1000;  // mg
-    private static final double RDA_IRON      = 18;    // mg
-    private static final double RDA_POTASSIUM = 2600;  // mg
-    private static final double RDA_ZINC      = 11;    // mg
-    private static final double RDA_MAGNESIUM = 420;   // mg
+    private final DailyRollupService dailyRollupService;
+
+    private static final int TOP_FOODS = 10;
+
+    /* -------- RDA constants (adult average), indexed by Nutrient ordinal -------- */
+    private static final NutrientVector RDA = new NutrientVector()
+            .set(Nutrient.PROTEIN,       50)
+            .set(Nutrient.CARBOHYDRATES, 300)
+            .set(Nutrient.FAT,           65)
+            .set(Nutrient.FIBER,         25)
+            .set(Nutrient.VITAMIN_A,     900)   // mcg
+            .set(Nutrient.VITAMIN_C,     90)    // mg
+            .set(Nutrient.VITAMIN_D,     20)    // mcg
+            .set(Nutrient.CALCIUM,       1000)  // mg
+            .set(Nutrient.IRON,          18)    // mg
+            .set(Nutrient.POTASSIUM,     2600)  // mg
+            .set(Nutrient.ZINC,          11)    // mg
+            .set(Nutrient.MAGNESIUM,     420);  // mg
+
+    // Short day names, indexed by DayOfWeek ordinal (resolved once instead of per day)
+    private static final String[] DAY_LABELS = new String[7];
+    static {
+        for (DayOfWeek d : DayOfWeek.values()) {
+            DAY_LABELS[d.ordinal()] = d.getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
+        }
+    }
 
     /**
      * Build all chart data for the given number of past days.
@@ -46,62 +61,115 @@ public class ChartDataService {
      * @param days   number of days to look back (e.g. 7 or 30)
      */
     public ChartDataDTO getChartData(Long userId, int days) {
-        LocalDateTime start = LocalDate.now().minusDays(days - 1).atStartOfDay();
-        LocalDateTime end   = LocalDate.now().plusDays(1).atStartOfDay();
+        LocalDate today = LocalDate.now();
+        LocalDate from  = today.minusDays(days - 1);
+
+        // At most one small rollup row per day instead of every entry in the range
+        List<DailyNutrientRollup> rollups = dailyRollupService.findRange(userId, from, today);
 
-        List<DietaryEntry> entries = entryRepo
-                .findByUserIdAndConsumedAtBetweenOrderByConsumedAtDesc(userId, start, end);
+        // Top foods need per-food detail, which the daily rollups don't keep; MySQL sums it per food
+        List<NutrientTotalsDTO> foods = entryRepo.sumByFood(
+                userId, from.atStartOfDay(), today.plusDays(1).atStartOfDay(), PageRequest.of(0, TOP_FOODS));
+
+        return assemble(rollups, foods, from, days);
+    }
+
+    /**
+     * Build the chart sections from already loaded rows: one FusedChartPass over
+     * the rollups for days, macros, meal types and radar, plus the per-food rows
+     * for top foods. Package-private so ChartDataBenchmark can time it without a database.
+     */
+    static ChartDataDTO assemble(List<DailyNutrientRollup> rollups, List<NutrientTotalsDTO> foods,
+                                 LocalDate from, int days) {
+        // Single traversal fills the day, macro, meal-type and radar sections
+        FusedChartPass pass = new FusedChartPass(from, days);
+        for (DailyNutrientRollup r : rollups) {
+            pass.add(r);
+        }
 
         ChartDataDTO dto = new ChartDataDTO();
-        dto.setDailyTrend(buildDailyTrend(entries, days));
-        dto.setMacroSplit(buildMacroSplit(entries));
-        dto.setMealTypeBreakdown(buildMealTypeBreakdown(entries));
-        dto.setTopFoods(buildTopFoods(entries));
-        dto.setNutrientRadar(buildNutrientRadar(entries, days));
+        dto.setDailyTrend(buildDailyTrend(pass));
+        dto.setMacroSplit(buildMacroSplit(pass.totals));
+        dto.setMealTypeBreakdown(buildMealTypeBreakdown(pass));
+        dto.setTopFoods(buildTopFoods(foods));
+        dto.setNutrientRadar(buildNutrientRadar(pass.totals, days));
         return dto;
     }
 
-    /* ============ 1. Daily Trend ============ */
+    /**
+     * Preallocated per-day and per-meal-type arrays filled by one pass over the rollup rows.
+     * Day index 0 is the first day in the range, index {@code days - 1} is today.
+     *
+     * Covers four of the five sections (daily trend, macro split, meal types,
+     * radar). Top foods are not part of the pass: they need per-food detail the
+     * rollups don't keep, and come from the separate sumByFood query.
+     */
+    private static final class FusedChartPass {
+        // Per-day slots: calories, protein, carbs, fat
+        private static final int DAY_STRIDE = 4;
+        private static final int CAL = Nutrient.CALORIES.ordinal();
+        private static final int PRO = Nutrient.PROTEIN.ordinal();
+        private static final int CARB = Nutrient.CARBOHYDRATES.ordinal();
+        private static final int FAT = Nutrient.FAT.ordinal();
+
+        final long firstDay;
+        final int days;
+        final double[] dayMacros;
+        final int[] dayMeals;
+        final double[] mealTypeCalories = new double[MealType.values().length];
+        final int[] mealTypeCounts = new int[MealType.values().length];
+        final NutrientVector totals = new NutrientVector();
+
+        FusedChartPass(LocalDate from, int days) {
+            this.firstDay = from.toEpochDay();
+            this.days = days;
+            this.dayMacros = new double[days * DAY_STRIDE];
+            this.dayMeals = new int[days];
+        }
 
-    private List<DayData> buildDailyTrend(List<DietaryEntry> entries, int days) {
-        // Group entries by date
-        Map<LocalDate, List<DietaryEntry>> byDate = entries.stream()
-                .collect(Collectors.groupingBy(e -> e.getConsumedAt().toLocalDate()));
-
-        List<DayData> trend = new ArrayList<>();
-        for (int i = days - 1; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusDays(i);
-            List<DietaryEntry> dayEntries = byDate.getOrDefault(date, List.of());
-
-            double cal = 0, pro = 0, carb = 0, fat = 0;
-            for (DietaryEntry e : dayEntries) {
-                NutrientProfile np = getProfile(e);
-                if (np == null) continue;
-                double p = e.getPortionSize();
-                cal  += np.getCalories()       * p;
-                pro  += np.getProtein()        * p;
-                carb += np.getCarbohydrates()  * p;
-                fat  += np.getFat()            * p;
+        void add(DailyNutrientRollup r) {
+            int idx = (int) (r.getRollupDate().toEpochDay() - firstDay);
+            if (idx < 0 || idx >= days) return;
+            double[] n = r.getNutrientTotals();
+
+            int base = idx * DAY_STRIDE;
+            dayMacros[base]     += n[CAL];
+            dayMacros[base + 1] += n[PRO];
+            dayMacros[base + 2] += n[CARB];
+            dayMacros[base + 3] += n[FAT];
+            dayMeals[idx] += r.getMealCount();
+
+            double[] mtCal = r.getMealTypeCalories();
+            double[] mtCount = r.getMealTypeCounts();
+            for (int t = 0; t < mealTypeCalories.length; t++) {
+                mealTypeCalories[t] += mtCal[t];
+                mealTypeCounts[t]   += (int) mtCount[t];
             }
 
-            String label = date.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
-            trend.add(new DayData(date.toString(), label, round(cal), round(pro), round(carb), round(fat), dayEntries.size()));
+            totals.addScaled(n, 0, 1.0);
+        }
+    }
+
+    /* ============ 1. Daily Trend ============ */
+
+    private static List<DayData> buildDailyTrend(FusedChartPass pass) {
+        List<DayData> trend = new ArrayList<>(pass.days);
+        for (int i = 0; i < pass.days; i++) {
+            LocalDate date = LocalDate.ofEpochDay(pass.firstDay + i);
+            int base = i * FusedChartPass.DAY_STRIDE;
+            trend.add(new DayData(date.toString(), DAY_LABELS[date.getDayOfWeek().ordinal()],
+                    round(pass.dayMacros[base]), round(pass.dayMacros[base + 1]),
+                    round(pass.dayMacros[base + 2]), round(pass.dayMacros[base + 3]), pass.dayMeals[i]));
         }
         return trend;
     }
 
     /* ============ 2. Macro Split ============ */
 
-    private MacroSplit buildMacroSplit(List<DietaryEntry> entries) {
-        double pro = 0, carb = 0, fat = 0;
-        for (DietaryEntry e : entries) {
-            NutrientProfile np = getProfile(e);
-            if (np == null) continue;
-            double p = e.getPortionSize();
-            pro  += np.getProtein()       * p;
-            carb += np.getCarbohydrates() * p;
-            fat  += np.getFat()           * p;
-        }
+    private static MacroSplit buildMacroSplit(NutrientVector totals) {
+        double pro  = totals.get(Nutrient.PROTEIN);
+        double carb = totals.get(Nutrient.CARBOHYDRATES);
+        double fat  = totals.get(Nutrient.FAT);
         double total = pro + carb + fat;
         if (total == 0) total = 1; // avoid /0
         return new MacroSplit(
@@ -111,89 +179,53 @@ public class ChartDataService {
 
     /* ============ 3. Meal-Type Breakdown ============ */
 
-    private List<MealTypeBreakdown> buildMealTypeBreakdown(List<DietaryEntry> entries) {
-        Map<String, double[]> map = new LinkedHashMap<>(); // [calories, count]
-        for (DietaryEntry e : entries) {
-            String mt = e.getMealType() != null ? e.getMealType().name() : "OTHER";
-            NutrientProfile np = getProfile(e);
-            double cal = np != null ? np.getCalories() * e.getPortionSize() : 0;
-            map.computeIfAbsent(mt, k -> new double[2]);
-            map.get(mt)[0] += cal;
-            map.get(mt)[1] += 1;
+    private static List<MealTypeBreakdown> buildMealTypeBreakdown(FusedChartPass pass) {
+        List<MealTypeBreakdown> result = new ArrayList<>();
+        for (MealType mt : MealType.values()) {
+            int count = pass.mealTypeCounts[mt.ordinal()];
+            if (count == 0) continue;
+            result.add(new MealTypeBreakdown(mt.name(), round(pass.mealTypeCalories[mt.ordinal()]), count));
         }
-        return map.entrySet().stream()
-                .map(en -> new MealTypeBreakdown(en.getKey(), round(en.getValue()[0]), (int) en.getValue()[1]))
-                .collect(Collectors.toList());
+        return result;
     }
 
     /* ============ 4. Top Foods ============ */
 
-    private List<TopFood> buildTopFoods(List<DietaryEntry> entries) {
-        Map<String, double[]> map = new HashMap<>(); // [totalCal, count]
-        for (DietaryEntry e : entries) {
-            String name = e.getFoodItem() != null ? e.getFoodItem().getName() : "Unknown";
-            NutrientProfile np = getProfile(e);
-            double cal = np != null ? np.getCalories() * e.getPortionSize() : 0;
-            map.computeIfAbsent(name, k -> new double[2]);
-            map.get(name)[0] += cal;
-            map.get(name)[1] += 1;
+    private static List<TopFood> buildTopFoods(List<NutrientTotalsDTO> foods) {
+        // Already grouped, sorted by times logged and limited by the query
+        List<TopFood> top = new ArrayList<>(foods.size());
+        for (NutrientTotalsDTO f : foods) {
+            top.add(new TopFood(f.getFoodName(), round(f.nutrients().get(Nutrient.CALORIES)), (int) f.getEntryCount()));
         }
-        return map.entrySet().stream()
-                .sorted((a, b) -> Double.compare(b.getValue()[1], a.getValue()[1]))
-                .limit(10)
-                .map(en -> new TopFood(en.getKey(), round(en.getValue()[0]), (int) en.getValue()[1]))
-                .collect(Collectors.toList());
+        return top;
     }
 
     /* ============ 5. Nutrient Radar ============ */
 
-    private List<RadarPoint> buildNutrientRadar(List<DietaryEntry> entries, int days) {
-        double pro = 0, carb = 0, fat = 0, fiber = 0;
-        double vitA = 0, vitC = 0, vitD = 0, calcium = 0, iron = 0, potassium = 0, zinc = 0, magnesium = 0;
-
-        for (DietaryEntry e : entries) {
-            NutrientProfile np = getProfile(e);
-            if (np == null) continue;
-            double p = e.getPortionSize();
-            pro       += np.getProtein()       * p;
-            carb      += np.getCarbohydrates() * p;
-            fat       += np.getFat()           * p;
-            fiber     += safe(np.getFiber())   * p;
-            vitA      += safe(np.getVitaminA())  * p;
-            vitC      += safe(np.getVitaminC())  * p;
-            vitD      += safe(np.getVitaminD())  * p;
-            calcium   += safe(np.getCalcium())   * p;
-            iron      += safe(np.getIron())      * p;
-            potassium += safe(np.getPotassium()) * p;
-            zinc      += safe(np.getZinc())      * p;
-            magnesium += safe(np.getMagnesium()) * p;
-        }
-
+    private static List<RadarPoint> buildNutrientRadar(NutrientVector totals, int days) {
         // Average per day
-        double d = Math.max(days, 1);
+        NutrientVector avg = totals.copy().divide(Math.max(days, 1));
         List<RadarPoint> points = new ArrayList<>();
-        points.add(new RadarPoint("Protein",   Math.min(round(pro / d / RDA_PROTEIN * 100), 150)));
-        points.add(new RadarPoint("Carbs",     Math.min(round(carb / d / RDA_CARBS * 100), 150)));
-        points.add(new RadarPoint("Fat",       Math.min(round(fat / d / RDA_FAT * 100), 150)));
-        points.add(new RadarPoint("Fiber",     Math.min(round(fiber / d / RDA_FIBER * 100), 150)));
-        points.add(new RadarPoint("Vitamin A", Math.min(round(vitA / d / RDA_VIT_A * 100), 150)));
-        points.add(new RadarPoint("Vitamin C", Math.min(round(vitC / d / RDA_VIT_C * 100), 150)));
-        points.add(new RadarPoint("Vitamin D", Math.min(round(vitD / d / RDA_VIT_D * 100), 150)));
-        points.add(new RadarPoint("Calcium",   Math.min(round(calcium / d / RDA_CALCIUM * 100), 150)));
-        points.add(new RadarPoint("Iron",      Math.min(round(iron / d / RDA_IRON * 100), 150)));
-        points.add(new RadarPoint("Potassium", Math.min(round(potassium / d / RDA_POTASSIUM * 100), 150)));
-        points.add(new RadarPoint("Zinc",      Math.min(round(zinc / d / RDA_ZINC * 100), 150)));
-        points.add(new RadarPoint("Magnesium", Math.min(round(magnesium / d / RDA_MAGNESIUM * 100), 150)));
+        points.add(radarPoint("Protein",   Nutrient.PROTEIN, avg));
+        points.add(radarPoint("Carbs",     Nutrient.CARBOHYDRATES, avg));
+        points.add(radarPoint("Fat",       Nutrient.FAT, avg));
+        points.add(radarPoint("Fiber",     Nutrient.FIBER, avg));
+        points.add(radarPoint("Vitamin A", Nutrient.VITAMIN_A, avg));
+        points.add(radarPoint("Vitamin C", Nutrient.VITAMIN_C, avg));
+        points.add(radarPoint("Vitamin D", Nutrient.VITAMIN_D, avg));
+        points.add(radarPoint("Calcium",   Nutrient.CALCIUM, avg));
+        points.add(radarPoint("Iron",      Nutrient.IRON, avg));
+        points.add(radarPoint("Potassium", Nutrient.POTASSIUM, avg));
+        points.add(radarPoint("Zinc",      Nutrient.ZINC, avg));
+        points.add(radarPoint("Magnesium", Nutrient.MAGNESIUM, avg));
         return points;
     }
 
-    /* -------- helpers -------- */
-
-    private NutrientProfile getProfile(DietaryEntry e) {
-        return e.getFoodItem() != null ? e.getFoodItem().getNutrientProfile() : null;
+    private static RadarPoint radarPoint(String label, Nutrient nutrient, NutrientVector avg) {
+        return new RadarPoint(label, Math.min(round(avg.get(nutrient) / RDA.get(nutrient) * 100), 150));
     }
 
-    private double safe(Double v) { return v != null ? v : 0; }
+    /* -------- helpers -------- */
 
-    private double round(double v) { return Math.round(v * 10.0) / 10.0; }
+    private static double round(double v) { return Math.round(v * 10.0) / 10.0; }
 }
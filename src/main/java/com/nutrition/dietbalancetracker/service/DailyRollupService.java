@@ -0,0 +1,174 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nutrition.dietbalancetracker.dto.NutrientTotalsDTO;
+import com.nutrition.dietbalancetracker.model.DailyNutrientRollup;
+import com.nutrition.dietbalancetracker.model.DietaryEntry;
+import com.nutrition.dietbalancetracker.model.DoubleArrayConverter;
+import com.nutrition.dietbalancetracker.model.MealType;
+import com.nutrition.dietbalancetracker.model.NutrientVector;
+import com.nutrition.dietbalancetracker.model.User;
+import com.nutrition.dietbalancetracker.repository.ArchivedDietaryEntryRepository;
+import com.nutrition.dietbalancetracker.repository.DailyNutrientRollupRepository;
+import com.nutrition.dietbalancetracker.repository.DietaryEntryRepository;
+import com.nutrition.dietbalancetracker.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * DAILY ROLLUP SERVICE
+ * ====================
+ * Maintains the per-user, per-day nutrient totals in daily_nutrient_rollups.
+ *
+ * Writes happen inside the caller's transaction (meal logging / deletion),
+ * so a rollup row never disagrees with the entries it summarizes.
+ * A day's row is first created empty if missing (one atomic upsert) and then
+ * read under a row lock, so concurrent first logs for the same day queue on
+ * that lock instead of both inserting.
+ * Reads return at most one row per day in the requested range.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DailyRollupService {
+
+    private final DailyNutrientRollupRepository rollupRepository;
+    private final DietaryEntryRepository dietaryEntryRepository;
+    private final UserRepository userRepository;
+    private final RollupPrefixIndex rollupPrefixIndex;
+    private final ArchivedDietaryEntryRepository archivedEntryRepository;
+
+    // Bounds wide enough to cover any entry when rebuilding a user's full history
+    private static final LocalDateTime ALL_TIME_START = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime ALL_TIME_END   = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    // Column values of an empty rollup row, as DoubleArrayConverter stores them
+    private static final byte[] EMPTY_TOTALS =
+            new DoubleArrayConverter().convertToDatabaseColumn(new double[NutrientVector.SIZE]);
+    private static final byte[] EMPTY_MEAL_TYPES =
+            new DoubleArrayConverter().convertToDatabaseColumn(new double[MealType.values().length]);
+
+    /** Add a newly logged entry to its day's rollup. */
+    @Transactional
+    public void recordLogged(DietaryEntry entry) {
+        apply(entry, +1);
+    }
+
+    /** Remove a deleted entry from its day's rollup. */
+    @Transactional
+    public void recordDeleted(DietaryEntry entry) {
+        apply(entry, -1);
+    }
+
+    /**
+     * Add many newly logged entries of one user to their days' rollups.
+     * Each day's row is looked up and saved once, however many entries it gets.
+     */
+    @Transactional
+    public void recordLoggedAll(List<DietaryEntry> entries) {
+        Map<LocalDate, List<DietaryEntry>> byDate = new TreeMap<>();
+        for (DietaryEntry entry : entries) {
+            byDate.computeIfAbsent(entry.getConsumedAt().toLocalDate(), d -> new ArrayList<>()).add(entry);
+        }
+        List<DailyNutrientRollup> changed = new ArrayList<>(byDate.size());
+        for (Map.Entry<LocalDate, List<DietaryEntry>> day : byDate.entrySet()) {
+            Long userId = day.getValue().get(0).getUser().getId();
+            DailyNutrientRollup rollup = lockRow(userId, day.getKey());
+            for (DietaryEntry entry : day.getValue()) {
+                applyTo(rollup, entry, +1);
+            }
+            changed.add(rollup);
+        }
+        rollupRepository.saveAll(changed);
+        if (!changed.isEmpty()) rollupPrefixIndex.evict(changed.get(0).getUserId());
+    }
+
+    private void apply(DietaryEntry entry, int sign) {
+        Long userId = entry.getUser().getId();
+        LocalDate date = entry.getConsumedAt().toLocalDate();
+
+        DailyNutrientRollup rollup = lockRow(userId, date);
+        applyTo(rollup, entry, sign);
+        rollupPrefixIndex.evict(userId);
+
+        // A day with no entries left has nothing to report
+        if (rollup.getMealCount() <= 0) {
+            rollupRepository.delete(rollup);
+            return;
+        }
+        rollupRepository.save(rollup);
+    }
+
+    /** A user's row for one day, created empty if missing, locked until the transaction ends. */
+    private DailyNutrientRollup lockRow(Long userId, LocalDate date) {
+        rollupRepository.insertEmptyIfAbsent(userId, date, EMPTY_TOTALS, EMPTY_MEAL_TYPES, LocalDateTime.now());
+        return rollupRepository.findByUserIdAndRollupDate(userId, date)
+                .orElseThrow(() -> new IllegalStateException("Rollup row missing for user " + userId + " on " + date));
+    }
+
+    private void applyTo(DailyNutrientRollup rollup, DietaryEntry entry, int sign) {
+        NutrientVector delta = new NutrientVector().accumulate(entry).scale(sign);
+        rollup.apply(delta, entry.getMealType(), sign);
+    }
+
+    /** Rollup rows for a user between two dates (inclusive), oldest first. */
+    @Transactional(readOnly = true)
+    public List<DailyNutrientRollup> findRange(Long userId, LocalDate from, LocalDate to) {
+        return rollupRepository.findByUserIdAndRollupDateBetweenOrderByRollupDateAsc(userId, from, to);
+    }
+
+    /**
+     * Recompute every rollup row for one user.
+     * The database sums the entries per day and meal type, so no entities are loaded.
+     * Archived entries (dietary_entries_archive) are summed too, so old days
+     * are recomputed with current nutrient values like recent ones.
+     */
+    @Transactional
+    public void rebuildUser(Long userId) {
+        rollupRepository.deleteByUserId(userId);
+        rollupRepository.flush();
+
+        List<NutrientTotalsDTO> groups = new ArrayList<>(archivedEntryRepository.sumByDayAndMealType(userId));
+        groups.addAll(dietaryEntryRepository.sumByDayAndMealType(userId, ALL_TIME_START, ALL_TIME_END));
+        Map<LocalDate, DailyNutrientRollup> byDate = new TreeMap<>();
+        for (NutrientTotalsDTO group : groups) {
+            byDate.computeIfAbsent(group.getDay(), d -> new DailyNutrientRollup(userId, d))
+                  .apply(group.nutrients(), group.getMealType(), (int) group.getEntryCount());
+        }
+        rollupRepository.saveAll(new ArrayList<>(byDate.values()));
+        rollupPrefixIndex.evict(userId);
+    }
+
+    /** Recompute rollups for every user (used after the food catalog is reseeded). */
+    @Transactional
+    public void rebuildAll() {
+        for (User user : userRepository.findAll()) {
+            rebuildUser(user.getId());
+        }
+    }
+
+    /**
+     * Backfill rollups once for databases that already had entries
+     * before the rollup table existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && dietaryEntryRepository.count() > 0) {
+            log.info("Daily nutrient rollups are empty - rebuilding from dietary entries");
+            rebuildAll();
+        }
+    }
+}
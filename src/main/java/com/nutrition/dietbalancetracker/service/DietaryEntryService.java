@@ -1,9 +1,18 @@
 package com.nutrition.dietbalancetracker.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +38,25 @@ public class DietaryEntryService {
     private final DietaryEntryRepository dietaryEntryRepository;
     private final UserRepository userRepository;
     private final FoodItemRepository foodItemRepository;
+    private final DailyRollupService dailyRollupService;
+    private final AnalysisCache analysisCache;
+    private final FoodAutocompleteIndex foodAutocompleteIndex;
+    private final UserFoodAffinity userFoodAffinity;
+
+    // The unpaged history endpoints return at most this many entries
+    public static final int HISTORY_LIMIT = 500;
+
+    // Largest page a client may ask for
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Most entries accepted by one batch log request
+    public static final int MAX_BATCH_SIZE = 200;
+
+    // How far back a meal may be logged
+    public static final int MAX_BACKDATE_YEARS = 5;
+
+    // Clients send local time; allow for them being up to a day ahead of the server
+    private static final int MAX_HOURS_AHEAD = 24;
     
     // Log a meal
     @Transactional
@@ -50,15 +78,143 @@ public class DietaryEntryService {
         entry.setFoodItem(foodItem);
         entry.setPortionSize(dto.getPortionSize());
         entry.setMealType(dto.getMealType());
-        entry.setConsumedAt(dto.getConsumedAt() != null ? dto.getConsumedAt() : LocalDateTime.now());
+        entry.setConsumedAt(consumedAt(dto, LocalDateTime.now()));
         
-        // Save and return
-        return dietaryEntryRepository.save(entry);
+        // Save, fold into the day's rollup and return
+        DietaryEntry saved = dietaryEntryRepository.save(entry);
+        dailyRollupService.recordLogged(saved);
+        analysisCache.invalidateUser(safeUserId);
+        foodAutocompleteIndex.recordLogged(foodItemId);
+        userFoodAffinity.recordLogged(safeUserId, foodItemId, saved.getConsumedAt());
+        return saved;
     }
     
-    // Get user's meal history
+    /** When the meal was eaten: now if not given, otherwise checked to be a plausible time. */
+    private static LocalDateTime consumedAt(DietaryEntryDTO dto, LocalDateTime now) {
+        LocalDateTime consumedAt = dto.getConsumedAt();
+        if (consumedAt == null) return now;
+        if (consumedAt.isAfter(now.plusHours(MAX_HOURS_AHEAD))) {
+            throw new RuntimeException("Consumed time cannot be in the future");
+        }
+        if (consumedAt.isBefore(now.minusYears(MAX_BACKDATE_YEARS))) {
+            throw new RuntimeException("Consumed time cannot be more than " + MAX_BACKDATE_YEARS + " years ago");
+        }
+        return consumedAt;
+    }
+
+    /**
+     * Log many meals for one user in a single transaction.
+     * All referenced foods are loaded with one query, the entries are
+     * inserted in JDBC batches, and each day's rollup is updated once.
+     * Nothing is saved if any entry is invalid.
+     */
+    @Transactional
+    public List<DietaryEntry> logMeals(Long userId, List<DietaryEntryDTO> dtos) {
+        Long safeUserId = Objects.requireNonNull(userId, "User ID is required");
+        if (dtos == null || dtos.isEmpty()) {
+            throw new RuntimeException("At least one entry is required");
+        }
+        if (dtos.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("At most " + MAX_BATCH_SIZE + " entries can be logged at once");
+        }
+
+        User user = userRepository.findById(safeUserId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // Resolve every referenced food in one IN query
+        Set<Long> foodIds = new HashSet<>();
+        for (DietaryEntryDTO dto : dtos) {
+            foodIds.add(Objects.requireNonNull(dto.getFoodItemId(), "Food item ID is required"));
+        }
+        Map<Long, FoodItem> foods = new HashMap<>();
+        for (FoodItem food : foodItemRepository.findByIdInOrderByIdAsc(foodIds)) {
+            foods.put(food.getId(), food);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<DietaryEntry> entries = new ArrayList<>(dtos.size());
+        for (DietaryEntryDTO dto : dtos) {
+            FoodItem foodItem = foods.get(dto.getFoodItemId());
+            if (foodItem == null) {
+                throw new RuntimeException("Food item not found: " + dto.getFoodItemId());
+            }
+            DietaryEntry entry = new DietaryEntry();
+            entry.setUser(user);
+            entry.setFoodItem(foodItem);
+            entry.setPortionSize(dto.getPortionSize());
+            entry.setMealType(dto.getMealType());
+            entry.setConsumedAt(consumedAt(dto, now));
+            entries.add(entry);
+        }
+
+        // Pooled ids mean these inserts go out in batches at flush
+        List<DietaryEntry> saved = dietaryEntryRepository.saveAll(entries);
+        dailyRollupService.recordLoggedAll(saved);
+        analysisCache.invalidateUser(safeUserId);
+        for (DietaryEntry entry : saved) {
+            foodAutocompleteIndex.recordLogged(entry.getFoodItem().getId());
+            userFoodAffinity.recordLogged(safeUserId, entry.getFoodItem().getId(), entry.getConsumedAt());
+        }
+        return saved;
+    }
+
+    // Get user's meal history (the most recent HISTORY_LIMIT entries)
     public List<DietaryEntry> getMealHistory(Long userId) {
-        return dietaryEntryRepository.findByUserIdOrderByConsumedAtDesc(userId);
+        return dietaryEntryRepository.findWithFoodByUserIdOrderByConsumedAtDescIdDesc(
+                userId, PageRequest.of(0, HISTORY_LIMIT));
+    }
+
+    /**
+     * Get one page of meal history, newest first.
+     *
+     * @param cursor nextCursor from the previous page, or null for the first page
+     * @param limit  page size, capped at MAX_PAGE_SIZE
+     * @throws IllegalArgumentException if the cursor is not one we issued
+     */
+    public HistoryPage getMealHistoryPage(Long userId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page follows
+        Pageable pageable = PageRequest.of(0, size + 1);
+
+        List<DietaryEntry> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = dietaryEntryRepository.findWithFoodByUserIdOrderByConsumedAtDescIdDesc(userId, pageable);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            rows = dietaryEntryRepository.findPageBefore(userId, after.consumedAt(), after.id(), pageable);
+        }
+
+        if (rows.size() <= size) {
+            return new HistoryPage(rows, null);
+        }
+        List<DietaryEntry> page = rows.subList(0, size);
+        DietaryEntry last = page.get(size - 1);
+        return new HistoryPage(page, new HistoryCursor(last.getConsumedAt(), last.getId()).encode());
+    }
+
+    /** A page of entries and the cursor for the next one (null on the last page). */
+    public record HistoryPage(List<DietaryEntry> entries, String nextCursor) { }
+
+    /**
+     * Position of the last entry on a page. Sent to clients as an opaque
+     * URL-safe token so they don't depend on its format.
+     */
+    private record HistoryCursor(LocalDateTime consumedAt, Long id) {
+
+        String encode() {
+            String raw = consumedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new HistoryCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid history cursor");
+            }
+        }
     }
     
     // Get today's meals
@@ -66,18 +222,20 @@ public class DietaryEntryService {
         LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
         LocalDateTime endOfDay = LocalDateTime.now().withHour(23).withMinute(59).withSecond(59);
         
-        return dietaryEntryRepository.findByUserIdAndConsumedAtBetweenOrderByConsumedAtDesc(
+        return dietaryEntryRepository.findWithFoodByUserIdAndConsumedAtBetweenOrderByConsumedAtDesc(
                 userId, startOfDay, endOfDay);
     }
 
     // Delete a meal entry (verifies ownership)
     @Transactional
     public void deleteEntry(Long entryId, Long userId) {
-        DietaryEntry entry = dietaryEntryRepository.findById(entryId)
+        DietaryEntry entry = dietaryEntryRepository.findWithFoodById(entryId)
                 .orElseThrow(() -> new RuntimeException("Entry not found"));
         if (!entry.getUser().getId().equals(userId)) {
             throw new RuntimeException("Unauthorized: entry does not belong to user");
         }
+        dailyRollupService.recordDeleted(entry);
+        analysisCache.invalidateUser(userId);
         dietaryEntryRepository.delete(entry);
     }
 }
@@ -0,0 +1,200 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nutrition.dietbalancetracker.model.BatchJobCheckpoint;
+import com.nutrition.dietbalancetracker.repository.ArchivedDietaryEntryRepository;
+import com.nutrition.dietbalancetracker.repository.BatchJobCheckpointRepository;
+import com.nutrition.dietbalancetracker.repository.DietaryEntryRepository;
+import com.nutrition.dietbalancetracker.repository.UserRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ENTRY ARCHIVE SERVICE
+ * =====================
+ * Nightly job moving dietary entries older than entry.archive.horizon-days
+ * out of dietary_entries into the compressed dietary_entries_archive table.
+ *
+ * Every query that reads individual entries looks at recent weeks (charts
+ * are capped at 90 days), so keeping years of rows in the hot table only
+ * bloats its indexes and buffer pool. Nothing is lost:
+ * - each day's nutrient sums stay in daily_nutrient_rollups, which is what
+ *   long-range analysis reads;
+ * - the rows themselves are kept in the archive table (ArchivedDietaryEntry),
+ *   which rollup rebuilds sum as well, are removed with their food when the
+ *   catalog is reseeded and are deleted with the account like everything else.
+ * Archived entries no longer appear in meal history or count towards food
+ * popularity.
+ *
+ * Work is done per user, entry.archive.chunk-size entries per transaction
+ * (copy, then delete), so it never holds locks for long. Progress is kept
+ * in batch_job_checkpoints with the cut-off date as the run date; a run
+ * that stops part-way resumes after the last finished user. With several
+ * app instances, only the one holding the job's lease (BatchJobLeaseService)
+ * runs it.
+ */
+@Service
+@Slf4j
+public class EntryArchiveService {
+
+    public static final String JOB_NAME = "entry-archive";
+
+    // Charts read up to 90 days of entries and affinity seeding 90 more days' worth
+    private static final int MIN_HORIZON_DAYS = 91;
+
+    private static final int USERS_PER_PAGE = 500;
+
+    private final UserRepository userRepository;
+    private final DietaryEntryRepository dietaryEntryRepository;
+    private final ArchivedDietaryEntryRepository archivedEntryRepository;
+    private final BatchJobCheckpointRepository checkpointRepository;
+    private final BatchJobLeaseService leaseService;
+    private final AnalysisCache analysisCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int horizonDays;
+    private final int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public EntryArchiveService(UserRepository userRepository,
+                               DietaryEntryRepository dietaryEntryRepository,
+                               ArchivedDietaryEntryRepository archivedEntryRepository,
+                               BatchJobCheckpointRepository checkpointRepository,
+                               BatchJobLeaseService leaseService,
+                               AnalysisCache analysisCache,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${entry.archive.horizon-days:180}") int horizonDays,
+                               @Value("${entry.archive.chunk-size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.dietaryEntryRepository = dietaryEntryRepository;
+        this.archivedEntryRepository = archivedEntryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.leaseService = leaseService;
+        this.analysisCache = analysisCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        if (horizonDays < MIN_HORIZON_DAYS) {
+            log.warn("entry.archive.horizon-days={} is too short, using {}", horizonDays, MIN_HORIZON_DAYS);
+        }
+        this.horizonDays = Math.max(horizonDays, MIN_HORIZON_DAYS);
+        this.chunkSize = chunkSize;
+    }
+
+    /** Archive everything consumed before the horizon. */
+    @Scheduled(cron = "${entry.archive.cron:0 0 3 * * *}")
+    public void runNightly() {
+        run(LocalDate.now().minusDays(horizonDays));
+    }
+
+    /**
+     * Archive every entry consumed before the cut-off date.
+     * Resumes an unfinished run for the same date; does nothing if it already
+     * completed, an earlier run already used a later cut-off, or another node
+     * is running it.
+     */
+    public void run(LocalDate cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Entry archiving is already running - skipping");
+            return;
+        }
+        try {
+            if (!leaseService.acquire(JOB_NAME)) {
+                log.info("Entry archiving is running on another node - skipping");
+                return;
+            }
+            try {
+                execute(cutoff);
+            } finally {
+                leaseService.release(JOB_NAME);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void execute(LocalDate cutoff) {
+        BatchJobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElseGet(() -> {
+            BatchJobCheckpoint c = new BatchJobCheckpoint();
+            c.setJobName(JOB_NAME);
+            return c;
+        });
+        if (checkpoint.getRunDate() != null && !cutoff.isAfter(checkpoint.getRunDate())) {
+            if (checkpoint.getStatus() == BatchJobCheckpoint.Status.COMPLETED) {
+                log.info("Entries before {} already archived", checkpoint.getRunDate());
+                return;
+            }
+            // An unfinished run with the same or a later cut-off: finish that one,
+            // the archive boundary never moves back
+            cutoff = checkpoint.getRunDate();
+            log.info("Resuming entry archiving before {} after user {}", cutoff, checkpoint.getLastUserId());
+        } else {
+            checkpoint.restart(cutoff);
+            checkpoint = checkpointRepository.save(checkpoint);
+        }
+
+        LocalDateTime before = cutoff.atStartOfDay();
+        long started = System.currentTimeMillis();
+        long archived = 0;
+        long cursor = checkpoint.getLastUserId();
+        while (true) {
+            List<Long> userIds = userRepository.findIdsAfter(cursor, PageRequest.of(0, USERS_PER_PAGE));
+            if (userIds.isEmpty()) break;
+            for (Long userId : userIds) {
+                if (!leaseService.renew(JOB_NAME)) {
+                    log.warn("Entry archiving lease was lost at user {} - stopping", userId);
+                    checkpointRepository.save(checkpoint);
+                    return;
+                }
+                try {
+                    archived += archiveUser(userId, before);
+                } catch (RuntimeException e) {
+                    log.error("Entry archiving stopped at user {}: {}; the next run resumes from there",
+                            userId, e.getMessage());
+                    checkpointRepository.save(checkpoint);
+                    return;
+                }
+                cursor = userId;
+                checkpoint.setLastUserId(cursor);
+                checkpoint.setUsersProcessed(checkpoint.getUsersProcessed() + 1);
+            }
+            checkpoint = checkpointRepository.save(checkpoint);
+        }
+
+        checkpoint.setStatus(BatchJobCheckpoint.Status.COMPLETED);
+        checkpointRepository.save(checkpoint);
+        log.info("Archived {} dietary entries consumed before {} ({} users, {} ms)",
+                archived, cutoff, checkpoint.getUsersProcessed(), System.currentTimeMillis() - started);
+    }
+
+    /** Move one user's entries consumed before the cut-off, a chunk per transaction. */
+    private long archiveUser(Long userId, LocalDateTime before) {
+        LocalDateTime archivedAt = LocalDateTime.now();
+        long total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> {
+                List<Long> ids = dietaryEntryRepository.findIdsByUserIdBefore(userId, before, PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    archivedEntryRepository.copyFromEntries(ids, archivedAt);
+                    dietaryEntryRepository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+            total += moved;
+        } while (moved == chunkSize);
+
+        if (total > 0) analysisCache.invalidateUser(userId);
+        return total;
+    }
+}
@@ -0,0 +1,194 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.nutrition.dietbalancetracker.dto.FoodCountDTO;
+import com.nutrition.dietbalancetracker.dto.FoodSuggestionDTO;
+import com.nutrition.dietbalancetracker.repository.DietaryEntryRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * FOOD AUTOCOMPLETE INDEX
+ * =======================
+ * Prefix lookup over food names for search-as-you-type.
+ *
+ * Each active food is listed under its whole normalized name and under
+ * every later word start ("butter chicken" is also found as "chicken").
+ * These keys are kept in one sorted array, so a prefix is a binary search
+ * followed by a short scan. Matches are ranked by how often the food has
+ * been logged across all users, and only the top few are returned.
+ *
+ * Names, categories and active flags come from the FoodNutrientMatrix
+ * snapshot. The keys are rebuilt whenever that snapshot is replaced.
+ * Popularity counts are loaded from the database, bumped once a logged
+ * meal commits, and periodically reloaded to pick up deletes and other nodes.
+ * When a user is given, their own usual foods (UserFoodAffinity) rank
+ * ahead of overall popularity.
+ */
+@Component
+@RequiredArgsConstructor
+public class FoodAutocompleteIndex {
+
+    public static final int MAX_LIMIT = 20;
+
+    private final FoodNutrientMatrix foodNutrientMatrix;
+    private final DietaryEntryRepository dietaryEntryRepository;
+    private final UserFoodAffinity userFoodAffinity;
+
+    private volatile Keys keys;
+    private volatile Map<Long, Long> popularity;
+
+    /** Up to {@code limit} foods with a name or name word starting with the prefix, most logged first. */
+    public List<FoodSuggestionDTO> suggest(String prefix, int limit) {
+        return suggest(prefix, limit, null);
+    }
+
+    /**
+     * Same, but for a user: the foods they log most often and recently come
+     * first, then the rest by overall popularity.
+     */
+    public List<FoodSuggestionDTO> suggest(String prefix, int limit, Long userId) {
+        String p = normalize(prefix);
+        if (p.isEmpty()) return List.of();
+        int k = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Keys index = currentKeys();
+        Map<Long, Long> counts = currentPopularity();
+        Map<Long, Double> personal = userFoodAffinity.scores(userId);
+        FoodNutrientMatrix.Snapshot foods = index.source;
+
+        // Lowest-ranked suggestion at the head, so it's the one dropped when full
+        Comparator<Integer> rank = Comparator
+                .comparingDouble((Integer row) -> personal.getOrDefault(foods.id(row), 0.0))
+                .thenComparingLong(row -> counts.getOrDefault(foods.id(row), 0L))
+                .thenComparing(row -> -foods.name(row).length())
+                .thenComparing(row -> foods.name(row), Comparator.reverseOrder());
+        PriorityQueue<Integer> top = new PriorityQueue<>(k + 1, rank);
+        Set<Integer> seen = new HashSet<>();
+
+        for (int i = lowerBound(index.keys, p); i < index.keys.length && index.keys[i].startsWith(p); i++) {
+            int row = index.rows[i];
+            if (!foods.isActive(row) || !seen.add(row)) continue;
+            top.add(row);
+            if (top.size() > k) top.poll();
+        }
+
+        List<FoodSuggestionDTO> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int row = top.poll();
+            result.add(new FoodSuggestionDTO(foods.id(row), foods.name(row), foods.category(row)));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /** Count a newly logged meal towards its food's popularity, once it is committed. */
+    public void recordLogged(Long foodItemId) {
+        if (foodItemId == null) return;
+        AfterCommit.run(() -> {
+            Map<Long, Long> counts = popularity;
+            if (counts != null) {
+                counts.merge(foodItemId, 1L, Long::sum);
+            }
+        });
+    }
+
+    /** Reload popularity from the database (picks up deletions and other nodes' logs). */
+    @Scheduled(fixedDelayString = "${food.autocomplete.popularity-refresh-ms:600000}")
+    public void refreshPopularity() {
+        if (popularity != null) {
+            popularity = loadPopularity();
+        }
+    }
+
+    private Keys currentKeys() {
+        FoodNutrientMatrix.Snapshot source = foodNutrientMatrix.current();
+        Keys index = keys;
+        if (index == null || index.source != source) {
+            index = new Keys(source);
+            keys = index;
+        }
+        return index;
+    }
+
+    private Map<Long, Long> currentPopularity() {
+        Map<Long, Long> counts = popularity;
+        if (counts == null) {
+            counts = loadPopularity();
+            popularity = counts;
+        }
+        return counts;
+    }
+
+    private Map<Long, Long> loadPopularity() {
+        Map<Long, Long> counts = new ConcurrentHashMap<>();
+        for (FoodCountDTO c : dietaryEntryRepository.countByFood()) {
+            counts.put(c.getFoodItemId(), c.getCount());
+        }
+        return counts;
+    }
+
+    /** First index whose key is >= the prefix. */
+    private static int lowerBound(String[] keys, String prefix) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    static String normalize(String text) {
+        if (text == null) return "";
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    /** Sorted name/word-start keys and the snapshot row each points to. */
+    private static final class Keys {
+
+        final FoodNutrientMatrix.Snapshot source;
+        final String[] keys;
+        final int[] rows;
+
+        Keys(FoodNutrientMatrix.Snapshot source) {
+            this.source = source;
+            List<String> keyList = new ArrayList<>();
+            List<Integer> rowList = new ArrayList<>();
+            for (int row = 0; row < source.size(); row++) {
+                String name = normalize(source.name(row));
+                for (int i = 0; i < name.length(); i++) {
+                    if (i == 0 || name.charAt(i - 1) == ' ') {
+                        keyList.add(name.substring(i));
+                        rowList.add(row);
+                    }
+                }
+            }
+
+            Integer[] order = new Integer[keyList.size()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparing(keyList::get));
+
+            this.keys = new String[order.length];
+            this.rows = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                keys[i] = keyList.get(order[i]);
+                rows[i] = rowList.get(order[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.nutrition.dietbalancetracker.service;
+
+/**
+ * FOOD CATALOG CHANGED EVENT
+ * ==========================
+ * Published when the system foods are reseeded, so in-memory views of
+ * the catalog (nutrient matrix, category counts, entity cache) can
+ * refresh themselves.
+ *
+ * Listeners should use @TransactionalEventListener so they only react
+ * once the change is committed.
+ */
+public record FoodCatalogChangedEvent() {
+
+    public static FoodCatalogChangedEvent reseeded() {
+        return new FoodCatalogChangedEvent();
+    }
+}
@@ -0,0 +1,107 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * FOOD CATALOG PAYLOAD
+ * ====================
+ * The GET /api/foods response, serialized once per catalog version.
+ *
+ * The full list of active foods is turned into JSON and gzipped a single
+ * time, and every request after that is served those bytes as-is. Each
+ * payload carries a strong ETag (a hash of the JSON), so clients that
+ * already have this version can be answered with 304 Not Modified.
+ *
+ * A new payload is built on the first request after the FoodNutrientMatrix
+ * snapshot is replaced, i.e. after foods are created, hidden, shown again
+ * or reseeded (on this or another node).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class FoodCatalogPayload {
+
+    /** Serialized catalog bytes for one version. */
+    public record Payload(byte[] json, byte[] gzipped, String etag, String gzipEtag) {
+
+        /** True if an If-None-Match header lists either encoding's tag (or "*"). */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) return false;
+            for (String tag : ifNoneMatch.split(",")) {
+                String t = tag.trim();
+                if (t.startsWith("W/")) t = t.substring(2);
+                if (t.equals("*") || t.equals(etag) || t.equals(gzipEtag)) return true;
+            }
+            return false;
+        }
+    }
+
+    private record Versioned(FoodNutrientMatrix.Snapshot source, Payload payload) { }
+
+    private final FoodItemService foodItemService;
+    private final FoodNutrientMatrix foodNutrientMatrix;
+    private final ObjectMapper objectMapper;
+
+    private volatile Versioned current;
+
+    /** The payload for the current catalog version, building it if the catalog changed. */
+    public Payload current() {
+        FoodNutrientMatrix.Snapshot source = foodNutrientMatrix.current();
+        Versioned v = current;
+        if (v == null || v.source() != source) {
+            v = build(source);
+        }
+        return v.payload();
+    }
+
+    private synchronized Versioned build(FoodNutrientMatrix.Snapshot source) {
+        Versioned v = current;
+        if (v != null && v.source() == source) return v;
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(foodItemService.searchFoods(null, null));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        String hash = sha256(json);
+        v = new Versioned(source, new Payload(json, gzip(json), "\"" + hash + "\"", "\"" + hash + "-gzip\""));
+        current = v;
+        log.debug("Food catalog payload built: {} bytes, {} gzipped", json.length, v.payload().gzipped().length);
+        return v;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            // 128 bits is plenty to tell catalog versions apart
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nutrition.dietbalancetracker.dto.CategoryCountDTO;
+import com.nutrition.dietbalancetracker.model.FoodCategory;
+import com.nutrition.dietbalancetracker.repository.FoodItemRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * FOOD CATEGORY COUNTS
+ * ====================
+ * Number of active foods per category, for the category sidebar.
+ *
+ * Counts are loaded once with a COUNT ... GROUP BY, and reading them never
+ * touches the database. They are rebuilt on the next read after a reseed,
+ * and a periodic check recounts them to pick up changes made anywhere else
+ * (other nodes, direct edits to the table).
+ */
+@Component
+@Slf4j
+public class FoodCategoryCounts {
+
+    private final FoodItemRepository foodItemRepository;
+
+    // One counter per category, created up front so the map itself never changes
+    private final Map<FoodCategory, AtomicLong> counts = new EnumMap<>(FoodCategory.class);
+
+    private volatile boolean loaded;
+
+    public FoodCategoryCounts(FoodItemRepository foodItemRepository) {
+        this.foodItemRepository = foodItemRepository;
+        for (FoodCategory category : FoodCategory.values()) {
+            counts.put(category, new AtomicLong());
+        }
+    }
+
+    /** Active food count per category, in enum order (categories with no foods included as 0). */
+    public Map<FoodCategory, Long> snapshot() {
+        if (!loaded) reload();
+        Map<FoodCategory, Long> result = new EnumMap<>(FoodCategory.class);
+        for (Map.Entry<FoodCategory, AtomicLong> e : counts.entrySet()) {
+            result.put(e.getKey(), Math.max(0, e.getValue().get()));
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(FoodCatalogChangedEvent event) {
+        loaded = false;
+    }
+
+    /** Recount from the database and pick up changes made elsewhere. */
+    @Scheduled(fixedDelayString = "${food.categories.check-interval-ms:300000}")
+    public void checkConsistency() {
+        if (!loaded) return;
+        Map<FoodCategory, Long> actual = countFromDatabase();
+        for (FoodCategory category : FoodCategory.values()) {
+            long expected = actual.getOrDefault(category, 0L);
+            long previous = counts.get(category).getAndSet(expected);
+            if (previous != expected) {
+                log.info("Food category count for {} changed: {} in memory, {} in database", category, previous, expected);
+            }
+        }
+    }
+
+    private synchronized void reload() {
+        if (loaded) return;
+        Map<FoodCategory, Long> actual = countFromDatabase();
+        for (FoodCategory category : FoodCategory.values()) {
+            counts.get(category).set(actual.getOrDefault(category, 0L));
+        }
+        loaded = true;
+    }
+
+    private Map<FoodCategory, Long> countFromDatabase() {
+        Map<FoodCategory, Long> actual = new EnumMap<>(FoodCategory.class);
+        for (CategoryCountDTO c : foodItemRepository.countActiveByCategory()) {
+            actual.put(c.getCategory(), c.getCount());
+        }
+        return actual;
+    }
+}
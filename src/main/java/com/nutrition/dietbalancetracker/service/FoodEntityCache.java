@@ -0,0 +1,68 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nutrition.dietbalancetracker.config.HibernateCacheConfig;
+import com.nutrition.dietbalancetracker.model.FoodItem;
+import com.nutrition.dietbalancetracker.model.NutrientProfile;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * FOOD ENTITY CACHE
+ * =================
+ * Housekeeping for the second-level cache regions holding FoodItem and
+ * NutrientProfile entities (see HibernateCacheConfig).
+ *
+ * Hibernate already updates cached entities it writes itself. A reseed
+ * is the only eviction trigger: it deletes and re-inserts the system foods
+ * in bulk, so both regions are cleared when it commits rather than served
+ * from stale entries. Also reports per-region hit/miss statistics.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class FoodEntityCache {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(FoodCatalogChangedEvent event) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictEntityData(FoodItem.class);
+        cache.evictEntityData(NutrientProfile.class);
+        log.debug("Food entity cache cleared after reseed");
+    }
+
+    /** Hit/miss/put counts and current size of each food cache region. */
+    public Map<String, Object> stats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        for (String region : HibernateCacheConfig.REGIONS) {
+            CacheRegionStatistics r = statistics.getCacheRegionStatistics(region);
+            Map<String, Object> regionStats = new LinkedHashMap<>();
+            if (r != null) {
+                long lookups = r.getHitCount() + r.getMissCount();
+                // -1/negative when the cache provider can't report it
+                if (r.getElementCountInMemory() >= 0) regionStats.put("size", r.getElementCountInMemory());
+                regionStats.put("hitCount", r.getHitCount());
+                regionStats.put("missCount", r.getMissCount());
+                regionStats.put("putCount", r.getPutCount());
+                regionStats.put("hitRate", lookups == 0 ? 0.0 : (double) r.getHitCount() / lookups);
+            }
+            stats.put(region, regionStats);
+        }
+        return stats;
+    }
+}
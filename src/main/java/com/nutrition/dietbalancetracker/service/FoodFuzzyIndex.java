@@ -0,0 +1,233 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.nutrition.dietbalancetracker.model.FoodCategory;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * FOOD FUZZY INDEX
+ * ================
+ * Typo-tolerant lookup of food names ("panner" finds Paneer, "dossa" finds Dosa).
+ *
+ * How a search works:
+ * - Names and queries are split into words and each word is folded to a
+ *   spelling-neutral form, so common romanization variants of the same
+ *   dish become identical (see {@link #fold}).
+ * - The distinct folded words of all food names sit in a BK-tree keyed by
+ *   Levenshtein distance. A lookup only descends into children whose edge
+ *   distance is within the allowed number of edits of the query word, so
+ *   the work depends on the distance bound rather than the catalog size.
+ * - The allowed distance grows with word length (0 for 3 letters or fewer,
+ *   1 up to 5, never more than {@link #MAX_DISTANCE}).
+ * - A food matches when every query word matches one of its words; it is
+ *   ranked by the summed edit distance, then by shorter name.
+ *
+ * Names, categories and active flags come from the FoodNutrientMatrix
+ * snapshot. The tree is rebuilt whenever that snapshot is replaced.
+ */
+@Component
+@RequiredArgsConstructor
+public class FoodFuzzyIndex {
+
+    public static final int MAX_DISTANCE = 2;
+    public static final int MAX_RESULTS = 50;
+
+    // Romanization variants, applied in order; each maps to one canonical spelling
+    private static final String[][] FOLDS = {
+        {"ph", "f"}, {"sh", "s"}, {"zh", "l"}, {"bh", "b"}, {"dh", "d"}, {"gh", "g"},
+        {"jh", "j"}, {"kh", "k"}, {"th", "t"}, {"ch", "c"}, {"ck", "k"}, {"q", "k"},
+        {"w", "v"}, {"z", "j"}, {"ee", "i"}, {"oo", "u"}, {"ou", "u"}, {"au", "o"},
+    };
+
+    private final FoodNutrientMatrix foodNutrientMatrix;
+
+    private volatile Tree tree;
+
+    /**
+     * Ids of active foods whose name matches every word of the query within
+     * the allowed edit distance, best match first. At most {@link #MAX_RESULTS}.
+     */
+    public List<Long> search(String query, FoodCategory category) {
+        List<String> words = words(query);
+        if (words.isEmpty()) return List.of();
+        Tree index = currentTree();
+        FoodNutrientMatrix.Snapshot foods = index.source;
+
+        // Summed distance per row, kept only for rows that matched every word so far
+        Map<Integer, Integer> distances = null;
+        for (String word : words) {
+            Map<Integer, Integer> matches = index.lookup(word, maxDistance(word));
+            if (distances == null) {
+                distances = matches;
+            } else {
+                Map<Integer, Integer> both = new HashMap<>();
+                for (Map.Entry<Integer, Integer> e : distances.entrySet()) {
+                    Integer d = matches.get(e.getKey());
+                    if (d != null) both.put(e.getKey(), e.getValue() + d);
+                }
+                distances = both;
+            }
+            if (distances.isEmpty()) return List.of();
+        }
+
+        final Map<Integer, Integer> ranked = distances;
+        return ranked.keySet().stream()
+                .filter(row -> foods.isActive(row) && (category == null || foods.category(row) == category))
+                .sorted(Comparator.comparingInt((Integer row) -> ranked.get(row))
+                        .thenComparingInt(row -> foods.name(row).length())
+                        .thenComparingLong(foods::id))
+                .limit(MAX_RESULTS)
+                .map(foods::id)
+                .toList();
+    }
+
+    private Tree currentTree() {
+        FoodNutrientMatrix.Snapshot source = foodNutrientMatrix.current();
+        Tree index = tree;
+        if (index == null || index.source != source) {
+            index = new Tree(source);
+            tree = index;
+        }
+        return index;
+    }
+
+    /** Edits allowed for a folded query word: none for very short words, where one edit is a different word. */
+    static int maxDistance(String word) {
+        if (word.length() <= 3) return 0;
+        if (word.length() <= 5) return 1;
+        return MAX_DISTANCE;
+    }
+
+    /** Folded, non-empty words of a name or query. */
+    static List<String> words(String text) {
+        List<String> result = new ArrayList<>();
+        if (text == null) return result;
+        for (String raw : text.toLowerCase(Locale.ROOT).split("[^a-z]+")) {
+            String word = fold(raw);
+            if (!word.isEmpty()) result.add(word);
+        }
+        return result;
+    }
+
+    /**
+     * Reduce a lowercase word to a spelling-neutral form: aspirated and
+     * alternative consonant spellings are merged (bh to b, sh to s, w to v),
+     * long-vowel spellings shortened (ee to i, oo to u), a final y read as i,
+     * and doubled letters collapsed. "paneer" and "panir", "sambhar" and
+     * "sambar", "dossa" and "dosa" then fold to the same or near forms.
+     */
+    static String fold(String word) {
+        String s = word;
+        for (String[] f : FOLDS) {
+            s = s.replace(f[0], f[1]);
+        }
+        if (s.endsWith("y")) s = s.substring(0, s.length() - 1) + "i";
+
+        StringBuilder out = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (out.length() == 0 || out.charAt(out.length() - 1) != c) out.append(c);
+        }
+        return out.toString();
+    }
+
+    /** Levenshtein distance using two rolling rows. */
+    static int distance(String a, String b) {
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] swap = prev;
+            prev = curr;
+            curr = swap;
+        }
+        return prev[b.length()];
+    }
+
+    /** BK-tree over the folded words of every food name in one snapshot. */
+    private static final class Tree {
+
+        final FoodNutrientMatrix.Snapshot source;
+        private Node root;
+
+        Tree(FoodNutrientMatrix.Snapshot source) {
+            this.source = source;
+            Map<String, List<Integer>> rowsByWord = new LinkedHashMap<>();
+            for (int row = 0; row < source.size(); row++) {
+                for (String word : words(source.name(row))) {
+                    List<Integer> rows = rowsByWord.computeIfAbsent(word, w -> new ArrayList<>());
+                    if (rows.isEmpty() || rows.get(rows.size() - 1) != row) rows.add(row);
+                }
+            }
+            for (Map.Entry<String, List<Integer>> e : rowsByWord.entrySet()) {
+                insert(e.getKey(), e.getValue().stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+
+        private void insert(String word, int[] rows) {
+            if (root == null) {
+                root = new Node(word, rows);
+                return;
+            }
+            Node node = root;
+            while (true) {
+                int d = distance(word, node.word);
+                Node child = node.children.get(d);
+                if (child == null) {
+                    node.children.put(d, new Node(word, rows));
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        /** Rows having a word within {@code maxDistance} of the query word, with their best distance. */
+        Map<Integer, Integer> lookup(String word, int maxDistance) {
+            Map<Integer, Integer> result = new HashMap<>();
+            if (root == null) return result;
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                int d = distance(word, node.word);
+                if (d <= maxDistance) {
+                    for (int row : node.rows) result.merge(row, d, Math::min);
+                }
+                // Triangle inequality: only children at edge distance d +/- maxDistance can be close enough
+                for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                    if (Math.abs(child.getKey() - d) <= maxDistance) pending.push(child.getValue());
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class Node {
+        final String word;
+        final int[] rows;
+        final Map<Integer, Node> children = new HashMap<>(4);
+
+        Node(String word, int[] rows) {
+            this.word = word;
+            this.rows = rows;
+        }
+    }
+}
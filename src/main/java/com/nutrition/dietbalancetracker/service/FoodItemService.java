@@ -1,12 +1,15 @@
 package com.nutrition.dietbalancetracker.service;
 
 import com.nutrition.dietbalancetracker.dto.FoodItemResponseDTO;
+import com.nutrition.dietbalancetracker.dto.FoodSummaryDTO;
 import com.nutrition.dietbalancetracker.model.FoodCategory;
 import com.nutrition.dietbalancetracker.model.FoodItem;
+import com.nutrition.dietbalancetracker.model.Nutrient;
 import com.nutrition.dietbalancetracker.repository.FoodItemRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -19,29 +22,46 @@ import java.util.stream.Collectors;
 public class FoodItemService {
     
     private final FoodItemRepository foodItemRepository;
+    private final FoodSearchIndex foodSearchIndex;
+    private final FoodFuzzyIndex foodFuzzyIndex;
+    private final FoodCategoryCounts foodCategoryCounts;
+    private final FoodNutrientRangeIndex foodNutrientRangeIndex;
+    private final FoodSimilarityIndex foodSimilarityIndex;
+    private final UserFoodAffinity userFoodAffinity;
+    private final FoodNutrientMatrix foodNutrientMatrix;
 
-    // Search foods by name and optionally filter by category
+    // Largest page listFoods will return
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /** One page of foods plus how many matched in total. */
+    public record Listing<T>(List<T> items, int total) { }
+
+    // Nutrient by its filter parameter suffix, lowercased ("protein", "vitaminb12")
+    private static final Map<String, Nutrient> NUTRIENT_PARAMS = new HashMap<>();
+    static {
+        for (Nutrient nutrient : Nutrient.values()) {
+            NUTRIENT_PARAMS.put(nutrient.name().replace("_", "").toLowerCase(), nutrient);
+        }
+    }
+
+    // Search foods by name/description and optionally filter by category
     public List<FoodItemResponseDTO> searchFoods(String query, String category) {
-        List<FoodItem> foods;
+        return searchFoods(query, category, null, null);
+    }
 
-        if (category != null && !category.trim().isEmpty()) {
-            try {
-                FoodCategory cat = FoodCategory.valueOf(category.toUpperCase());
-                foods = foodItemRepository.findByCategoryAndIsActiveTrue(cat);
-                if (query != null && !query.trim().isEmpty()) {
-                    String q = query.toLowerCase();
-                    foods = foods.stream()
-                            .filter(f -> f.getName().toLowerCase().contains(q))
-                            .collect(Collectors.toList());
-                }
-            } catch (IllegalArgumentException e) {
-                foods = foodItemRepository.findByIsActiveTrue();
-            }
-        } else if (query == null || query.trim().isEmpty()) {
-            foods = foodItemRepository.findByIsActiveTrue();
+    // Same, with mode "fuzzy" also returning names within a few typos (exact matches first),
+    // and with the foods a user logs most often moved to the top when userId is given
+    public List<FoodItemResponseDTO> searchFoods(String query, String category, String mode, Long userId) {
+        FoodCategory cat = parseCategory(category);
+
+        List<FoodItem> foods;
+        if (query == null || query.trim().isEmpty()) {
+            foods = cat != null
+                    ? foodItemRepository.findByCategoryAndIsActiveTrue(cat)
+                    : foodItemRepository.findByIsActiveTrue();
+            foods = byAffinity(userId, foods, FoodItem::getId);
         } else {
-            // Search by name
-            foods = foodItemRepository.findByNameContainingIgnoreCaseAndIsActiveTrue(query);
+            foods = loadInOrder(matchingIds(query, cat, mode, userId));
         }
         
         // Convert to DTOs
@@ -49,7 +69,169 @@ public class FoodItemService {
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * One page of a listing or search (same matching and ordering as searchFoods).
+     * With limit null every match is returned. View "summary" answers from the
+     * in-memory catalog with FoodSummaryDTOs; "full" (default) loads FoodItemResponseDTOs
+     * for just the foods on the page.
+     */
+    public Listing<?> listFoods(String query, String category, String mode, Long userId,
+                                int page, Integer limit, String view) {
+        boolean summary = "summary".equalsIgnoreCase(view);
+        if (view != null && !summary && !"full".equalsIgnoreCase(view)) {
+            throw new RuntimeException("Unknown view: " + view);
+        }
+
+        List<Long> ids = matchingIds(query, parseCategory(category), mode, userId);
+        int total = ids.size();
+        if (limit != null) {
+            int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            int from = (int) Math.min((long) Math.max(page, 0) * size, total);
+            ids = ids.subList(from, Math.min(from + size, total));
+        }
+
+        if (summary) {
+            FoodNutrientMatrix.Snapshot foods = foodNutrientMatrix.current();
+            List<FoodSummaryDTO> items = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                int row = foods.rowOf(id);
+                if (row < 0) continue;
+                items.add(new FoodSummaryDTO(id, foods.name(row), foods.category(row),
+                        foods.value(row, Nutrient.CALORIES)));
+            }
+            return new Listing<>(items, total);
+        }
+        return new Listing<>(loadInOrder(ids).stream().map(this::convertToDTO).toList(), total);
+    }
+
+    // Ids of the foods a search returns, in result order
+    private List<Long> matchingIds(String query, FoodCategory cat, String mode, Long userId) {
+        List<Long> ids;
+        if (query == null || query.trim().isEmpty()) {
+            // Every active food (in the category), straight from the in-memory catalog
+            FoodNutrientMatrix.Snapshot foods = foodNutrientMatrix.current();
+            ids = new ArrayList<>();
+            for (int row = 0; row < foods.size(); row++) {
+                if (foods.isActive(row) && (cat == null || foods.category(row) == cat)) ids.add(foods.id(row));
+            }
+        } else {
+            // Matching ids come from the in-memory trigram index; only the hits are loaded
+            ids = foodSearchIndex.search(query, cat);
+            if ("fuzzy".equalsIgnoreCase(mode)) {
+                Set<Long> merged = new LinkedHashSet<>(ids);
+                merged.addAll(foodFuzzyIndex.search(query, cat));
+                ids = new ArrayList<>(merged);
+            }
+        }
+        return byAffinity(userId, ids, id -> id);
+    }
+
+    // Stable re-sort putting the foods a user logs most often first (others keep their order)
+    private <T> List<T> byAffinity(Long userId, List<T> items, Function<T, Long> idOf) {
+        if (userId == null || items.size() < 2) return items;
+        Map<Long, Double> affinity = userFoodAffinity.scores(userId);
+        if (affinity.isEmpty()) return items;
+        return items.stream()
+                .sorted(Comparator.comparingDouble((T item) -> -affinity.getOrDefault(idOf.apply(item), 0.0)))
+                .toList();
+    }
+
+    // Single category name; unknown or blank means all categories
+    private static FoodCategory parseCategory(String category) {
+        if (category == null || category.trim().isEmpty()) return null;
+        try {
+            return FoodCategory.valueOf(category.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            // Unknown category: search all categories
+            return null;
+        }
+    }
     
+    /**
+     * Foods whose per-serving nutrients lie within the given ranges.
+     * Parameters are min/max plus a nutrient name ("minProtein", "maxCalories",
+     * "maxVitaminB12"), bounds inclusive; "category" takes one or more
+     * comma-separated categories.
+     */
+    public List<FoodItemResponseDTO> filterFoods(Map<String, String> params) {
+        Map<Nutrient, FoodNutrientRangeIndex.Range> ranges = new EnumMap<>(Nutrient.class);
+        Set<FoodCategory> categories = EnumSet.noneOf(FoodCategory.class);
+
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            String name = param.getKey();
+            String value = param.getValue().trim();
+            if (name.equals("category")) {
+                categories.addAll(parseCategories(value));
+                continue;
+            }
+
+            boolean isMin = name.startsWith("min");
+            Nutrient nutrient = (isMin || name.startsWith("max"))
+                    ? NUTRIENT_PARAMS.get(name.substring(3).toLowerCase()) : null;
+            if (nutrient == null) {
+                throw new RuntimeException("Unknown filter parameter: " + name);
+            }
+            double amount;
+            try {
+                amount = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid number for " + name + ": " + value);
+            }
+            // parseDouble accepts "NaN" and "Infinity"; a NaN bound would match every food
+            if (!Double.isFinite(amount)) {
+                throw new RuntimeException("Invalid number for " + name + ": " + value);
+            }
+            FoodNutrientRangeIndex.Range range = ranges.getOrDefault(nutrient, new FoodNutrientRangeIndex.Range(null, null));
+            range = isMin ? new FoodNutrientRangeIndex.Range(amount, range.max())
+                          : new FoodNutrientRangeIndex.Range(range.min(), amount);
+            if (range.min() != null && range.max() != null && range.min() > range.max()) {
+                throw new RuntimeException("Empty range for " + nutrient);
+            }
+            ranges.put(nutrient, range);
+        }
+
+        return loadInOrder(foodNutrientRangeIndex.filter(ranges, categories)).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    // Foods with the most similar nutrient profile to a food, closest first
+    public List<FoodItemResponseDTO> similarFoods(Long foodId, String category, int limit) {
+        List<Long> ids = foodSimilarityIndex.similar(foodId, parseCategories(category), limit);
+        return loadInOrder(ids).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    // Comma-separated category names (empty set if none given)
+    private static Set<FoodCategory> parseCategories(String value) {
+        Set<FoodCategory> categories = EnumSet.noneOf(FoodCategory.class);
+        if (value == null) return categories;
+        for (String c : value.split(",")) {
+            if (c.isBlank()) continue;
+            try {
+                categories.add(FoodCategory.valueOf(c.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unknown category: " + c.trim());
+            }
+        }
+        return categories;
+    }
+
+    // Load foods by id, keeping the order of the ids (the ranking)
+    private List<FoodItem> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, FoodItem> byId = foodItemRepository.findByIdInOrderByIdAsc(ids).stream()
+                .collect(Collectors.toMap(FoodItem::getId, f -> f));
+        List<FoodItem> foods = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            FoodItem food = byId.get(id);
+            if (food != null) foods.add(food);
+        }
+        return foods;
+    }
+
     // Convert FoodItem to DTO
     private FoodItemResponseDTO convertToDTO(FoodItem food) {
         FoodItemResponseDTO dto = new FoodItemResponseDTO();
@@ -95,18 +277,14 @@ public class FoodItemService {
         return searchFoods(query, null);
     }
 
-    // Get category counts for the sidebar/tabs
+    // Get category counts for the sidebar/tabs (kept in memory, no catalog load)
     public List<Map<String, Object>> getCategoryCounts() {
-        List<FoodItem> allActive = foodItemRepository.findByIsActiveTrue();
-        Map<FoodCategory, Long> counts = allActive.stream()
-                .collect(Collectors.groupingBy(FoodItem::getCategory, Collectors.counting()));
-
         List<Map<String, Object>> result = new ArrayList<>();
-        for (FoodCategory cat : FoodCategory.values()) {
-            long count = counts.getOrDefault(cat, 0L);
+        for (Map.Entry<FoodCategory, Long> entry : foodCategoryCounts.snapshot().entrySet()) {
+            long count = entry.getValue();
             if (count > 0) {
                 Map<String, Object> item = new LinkedHashMap<>();
-                item.put("category", cat.name());
+                item.put("category", entry.getKey().name());
                 item.put("count", count);
                 result.add(item);
             }
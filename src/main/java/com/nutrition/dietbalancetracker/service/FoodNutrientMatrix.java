@@ -0,0 +1,169 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nutrition.dietbalancetracker.dto.FoodCatalogStampDTO;
+import com.nutrition.dietbalancetracker.model.FoodCategory;
+import com.nutrition.dietbalancetracker.model.FoodItem;
+import com.nutrition.dietbalancetracker.model.Nutrient;
+import com.nutrition.dietbalancetracker.model.NutrientVector;
+import com.nutrition.dietbalancetracker.repository.FoodItemRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * FOOD NUTRIENT MATRIX
+ * ====================
+ * A read-only, in-memory copy of the whole food catalog laid out as columns:
+ * food ids, names, descriptions, categories, active flags, and one flat
+ * double[] holding every food's nutrient vector back to back
+ * ([row * NutrientVector.SIZE + nutrient]).
+ *
+ * Aggregations then only need (foodItemId, portionSize) from the database and
+ * add rows straight out of this array instead of walking FoodItem and
+ * NutrientProfile entities for every entry.
+ *
+ * The catalog is small and rarely changes. The snapshot is rebuilt lazily on
+ * the next read after:
+ * - a FoodCatalogChangedEvent on this node, or
+ * - a periodic fingerprint check finding a change made by another node.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class FoodNutrientMatrix {
+
+    private final FoodItemRepository foodItemRepository;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+
+    /** The current snapshot, rebuilding it first if the catalog has changed. */
+    public Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null || stale) {
+            s = rebuild();
+        }
+        return s;
+    }
+
+    private synchronized Snapshot rebuild() {
+        if (snapshot != null && !stale) return snapshot;
+        // Clear the flag before reading so a change during the load marks it stale again
+        stale = false;
+        FoodCatalogStampDTO stamp = foodItemRepository.catalogStamp();
+        Snapshot s = new Snapshot(foodItemRepository.findAllWithProfile(), stamp);
+        snapshot = s;
+        log.debug("Food nutrient matrix rebuilt: {} foods", s.size());
+        return s;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(FoodCatalogChangedEvent event) {
+        stale = true;
+    }
+
+    /** Pick up catalog changes committed by other application nodes. */
+    @Scheduled(fixedDelayString = "${food.matrix.check-interval-ms:60000}")
+    public void checkForExternalChanges() {
+        Snapshot s = snapshot;
+        if (s != null && !stale && !s.stamp.equals(foodItemRepository.catalogStamp())) {
+            stale = true;
+        }
+    }
+
+    /**
+     * One immutable copy of the catalog. Rows are sorted by food id.
+     */
+    public static final class Snapshot {
+
+        private final long[] ids;
+        private final String[] names;
+        private final String[] descriptions;
+        private final FoodCategory[] categories;
+        private final boolean[] active;
+        private final double[] nutrients;
+        private final FoodCatalogStampDTO stamp;
+
+        private Snapshot(List<FoodItem> foods, FoodCatalogStampDTO stamp) {
+            int n = foods.size();
+            this.ids = new long[n];
+            this.names = new String[n];
+            this.descriptions = new String[n];
+            this.categories = new FoodCategory[n];
+            this.active = new boolean[n];
+            this.nutrients = new double[n * NutrientVector.SIZE];
+            this.stamp = stamp;
+
+            NutrientVector row = new NutrientVector();
+            for (int i = 0; i < n; i++) {
+                FoodItem food = foods.get(i);
+                ids[i] = food.getId();
+                names[i] = food.getName();
+                descriptions[i] = food.getDescription();
+                categories[i] = food.getCategory();
+                active[i] = Boolean.TRUE.equals(food.getIsActive());
+                row.clear().accumulate(food.getNutrientProfile(), 1.0);
+                System.arraycopy(row.values(), 0, nutrients, i * NutrientVector.SIZE, NutrientVector.SIZE);
+            }
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        /** Row of a food, or -1 if it isn't in this snapshot. */
+        public int rowOf(Long foodItemId) {
+            if (foodItemId == null) return -1;
+            int row = Arrays.binarySearch(ids, foodItemId);
+            return row >= 0 ? row : -1;
+        }
+
+        public long id(int row) {
+            return ids[row];
+        }
+
+        public String name(int row) {
+            return names[row];
+        }
+
+        public String description(int row) {
+            return descriptions[row];
+        }
+
+        public FoodCategory category(int row) {
+            return categories[row];
+        }
+
+        public boolean isActive(int row) {
+            return active[row];
+        }
+
+        /** Per-serving amount of one nutrient in a row. */
+        public double value(int row, Nutrient nutrient) {
+            return nutrients[row * NutrientVector.SIZE + nutrient.ordinal()];
+        }
+
+        /** Per-serving nutrients of a row (a copy). */
+        public NutrientVector nutrients(int row) {
+            return new NutrientVector().addScaled(nutrients, row * NutrientVector.SIZE, 1.0);
+        }
+
+        /**
+         * Add {@code portion} servings of a food to {@code target}.
+         * Returns false (adding nothing) if the food isn't in this snapshot.
+         */
+        public boolean accumulate(NutrientVector target, Long foodItemId, double portion) {
+            int row = rowOf(foodItemId);
+            if (row < 0) return false;
+            target.addScaled(nutrients, row * NutrientVector.SIZE, portion);
+            return true;
+        }
+    }
+}
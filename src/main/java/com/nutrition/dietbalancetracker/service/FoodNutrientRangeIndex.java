@@ -0,0 +1,161 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.nutrition.dietbalancetracker.model.FoodCategory;
+import com.nutrition.dietbalancetracker.model.Nutrient;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * FOOD NUTRIENT RANGE INDEX
+ * =========================
+ * Answers "protein >= 20 and calories <= 200 per serving" style queries
+ * over the food catalog without looking at every food.
+ *
+ * For each nutrient the snapshot's rows are kept sorted by their
+ * per-serving amount, so one range is two binary searches and a slice of
+ * row numbers. Each slice becomes a bitset; the bitsets (narrowest first),
+ * the selected categories and the active foods are then AND-ed together.
+ *
+ * Built from the FoodNutrientMatrix snapshot and rebuilt whenever that
+ * snapshot is replaced.
+ */
+@Component
+@RequiredArgsConstructor
+public class FoodNutrientRangeIndex {
+
+    /** Inclusive bounds on a per-serving nutrient amount; null means unbounded. */
+    public record Range(Double min, Double max) { }
+
+    private final FoodNutrientMatrix foodNutrientMatrix;
+
+    private volatile Columns columns;
+
+    /**
+     * Ids of active foods within every range and in one of the categories
+     * (any category if empty), in ascending id order.
+     */
+    public List<Long> filter(Map<Nutrient, Range> ranges, Set<FoodCategory> categories) {
+        Columns index = currentColumns();
+        FoodNutrientMatrix.Snapshot foods = index.source;
+
+        List<BitSet> slices = new ArrayList<>();
+        for (Map.Entry<Nutrient, Range> e : ranges.entrySet()) {
+            slices.add(index.slice(e.getKey(), e.getValue()));
+        }
+        slices.sort(Comparator.comparingInt(BitSet::cardinality));
+
+        BitSet matches = (BitSet) index.active.clone();
+        if (!categories.isEmpty()) {
+            BitSet inCategories = new BitSet(foods.size());
+            for (FoodCategory category : categories) {
+                inCategories.or(index.byCategory.get(category));
+            }
+            matches.and(inCategories);
+        }
+        for (BitSet slice : slices) {
+            if (matches.isEmpty()) break;
+            matches.and(slice);
+        }
+
+        List<Long> ids = new ArrayList<>(matches.cardinality());
+        for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+            ids.add(foods.id(row));
+        }
+        return ids;
+    }
+
+    private Columns currentColumns() {
+        FoodNutrientMatrix.Snapshot source = foodNutrientMatrix.current();
+        Columns index = columns;
+        if (index == null || index.source != source) {
+            index = new Columns(source);
+            columns = index;
+        }
+        return index;
+    }
+
+    /** Per-nutrient sorted columns plus active/category bitsets for one snapshot. */
+    private static final class Columns {
+
+        final FoodNutrientMatrix.Snapshot source;
+        final BitSet active = new BitSet();
+        final Map<FoodCategory, BitSet> byCategory = new EnumMap<>(FoodCategory.class);
+        // Per nutrient: amounts in ascending order, and the row each amount belongs to
+        final double[][] sortedValues = new double[Nutrient.values().length][];
+        final int[][] sortedRows = new int[Nutrient.values().length][];
+
+        Columns(FoodNutrientMatrix.Snapshot source) {
+            this.source = source;
+            int n = source.size();
+            for (FoodCategory category : FoodCategory.values()) {
+                byCategory.put(category, new BitSet(n));
+            }
+            for (int row = 0; row < n; row++) {
+                if (source.isActive(row)) active.set(row);
+                if (source.category(row) != null) byCategory.get(source.category(row)).set(row);
+            }
+
+            for (Nutrient nutrient : Nutrient.values()) {
+                Integer[] order = new Integer[n];
+                for (int row = 0; row < n; row++) order[row] = row;
+                Arrays.sort(order, Comparator.comparingDouble(row -> source.value(row, nutrient)));
+
+                double[] values = new double[n];
+                int[] rows = new int[n];
+                for (int i = 0; i < n; i++) {
+                    rows[i] = order[i];
+                    values[i] = source.value(order[i], nutrient);
+                }
+                sortedValues[nutrient.ordinal()] = values;
+                sortedRows[nutrient.ordinal()] = rows;
+            }
+        }
+
+        /** Rows whose amount of the nutrient lies within the range. */
+        BitSet slice(Nutrient nutrient, Range range) {
+            double[] values = sortedValues[nutrient.ordinal()];
+            int[] rows = sortedRows[nutrient.ordinal()];
+            int from = range.min() == null ? 0 : firstAtLeast(values, range.min());
+            int to = range.max() == null ? values.length : firstAbove(values, range.max());
+
+            BitSet slice = new BitSet(source.size());
+            for (int i = from; i < to; i++) {
+                slice.set(rows[i]);
+            }
+            return slice;
+        }
+
+        private static int firstAtLeast(double[] values, double min) {
+            int lo = 0;
+            int hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < min) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        private static int firstAbove(double[] values, double max) {
+            int lo = 0;
+            int hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] <= max) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.nutrition.dietbalancetracker.model.Nutrient;
+import com.nutrition.dietbalancetracker.model.NutrientVector;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * FOOD RECOMMENDATION ENGINE
+ * ==========================
+ * Picks catalog foods that best fill the gaps in a user's diet.
+ *
+ * The gap is what's still missing of each recommended daily value. One
+ * serving of a food is scored by how much of the gap it closes, each
+ * nutrient counted as a fraction of its daily value and capped at what's
+ * actually missing (no credit for going past the target). Calories and fat
+ * beyond what's left of the day's allowance subtract from the score, so
+ * a deep-fried dish doesn't win just because it has a bit of everything.
+ *
+ * For each low nutrient, foods supplying it get that nutrient's share
+ * weighted extra on top of their overall score, and the best few are kept
+ * in a small bounded buffer. All target nutrients are ranked in a single
+ * pass over the FoodNutrientMatrix snapshot, so the cost is one scan of
+ * the catalog per analysis.
+ */
+@Component
+@RequiredArgsConstructor
+public class FoodRecommendationEngine {
+
+    // How much more the nutrient being recommended for counts than the rest of the gap
+    private static final double PRIMARY_WEIGHT = 3.0;
+    // Penalty per daily-allowance fraction of calories / fat beyond what's left today
+    private static final double CALORIE_OVERSHOOT_PENALTY = 2.0;
+    private static final double FAT_OVERSHOOT_PENALTY = 2.0;
+
+    private final FoodNutrientMatrix foodNutrientMatrix;
+
+    /**
+     * Up to {@code k} food names per target nutrient, best first.
+     *
+     * @param intake      what the user has eaten (per day)
+     * @param recommended recommended daily values; calories are derived from the macros
+     * @param targets     nutrients to suggest foods for
+     */
+    public Map<Nutrient, List<String>> recommend(NutrientVector intake, NutrientVector recommended,
+                                                 Collection<Nutrient> targets, int k) {
+        Map<Nutrient, List<String>> result = new EnumMap<>(Nutrient.class);
+        if (targets.isEmpty()) return result;
+        FoodNutrientMatrix.Snapshot foods = foodNutrientMatrix.current();
+        Nutrient[] nutrients = Nutrient.values();
+
+        // Remaining gap per nutrient, and 1 / daily value to express amounts as fractions of it
+        double[] gap = new double[nutrients.length];
+        double[] inverseRda = new double[nutrients.length];
+        for (Nutrient n : nutrients) {
+            double rda = recommended.get(n);
+            if (n == Nutrient.CALORIES || rda <= 0) continue;
+            gap[n.ordinal()] = Math.max(0, rda - intake.get(n));
+            inverseRda[n.ordinal()] = 1.0 / rda;
+        }
+
+        // Energy allowance implied by the recommended macros (4 / 4 / 9 kcal per gram)
+        double calorieTarget = 4 * recommended.get(Nutrient.PROTEIN)
+                + 4 * recommended.get(Nutrient.CARBOHYDRATES)
+                + 9 * recommended.get(Nutrient.FAT);
+        double caloriesLeft = Math.max(0, calorieTarget - intake.get(Nutrient.CALORIES));
+        double fatTarget = recommended.get(Nutrient.FAT);
+        double fatLeft = Math.max(0, fatTarget - intake.get(Nutrient.FAT));
+
+        Nutrient[] targetList = targets.toArray(new Nutrient[0]);
+        TopK[] best = new TopK[targetList.length];
+        for (int t = 0; t < targetList.length; t++) best[t] = new TopK(k);
+
+        double[] closed = new double[nutrients.length];
+        for (int row = 0; row < foods.size(); row++) {
+            if (!foods.isActive(row)) continue;
+
+            double score = 0;
+            for (int n = 0; n < nutrients.length; n++) {
+                closed[n] = Math.min(foods.value(row, nutrients[n]), gap[n]) * inverseRda[n];
+                score += closed[n];
+            }
+            if (calorieTarget > 0) {
+                double over = foods.value(row, Nutrient.CALORIES) - caloriesLeft;
+                if (over > 0) score -= CALORIE_OVERSHOOT_PENALTY * over / calorieTarget;
+            }
+            if (fatTarget > 0) {
+                double over = foods.value(row, Nutrient.FAT) - fatLeft;
+                if (over > 0) score -= FAT_OVERSHOOT_PENALTY * over / fatTarget;
+            }
+
+            for (int t = 0; t < targetList.length; t++) {
+                double primary = closed[targetList[t].ordinal()];
+                if (primary > 0) best[t].offer(row, score + PRIMARY_WEIGHT * primary);
+            }
+        }
+
+        for (int t = 0; t < targetList.length; t++) {
+            List<String> names = new ArrayList<>(best[t].size);
+            for (int i = 0; i < best[t].size; i++) {
+                names.add(foods.name(best[t].rows[i]));
+            }
+            result.put(targetList[t], names);
+        }
+        return result;
+    }
+
+    /** The k highest-scoring rows seen so far, kept sorted best first. */
+    private static final class TopK {
+        final int[] rows;
+        final double[] scores;
+        int size;
+
+        TopK(int k) {
+            rows = new int[Math.max(k, 0)];
+            scores = new double[Math.max(k, 0)];
+        }
+
+        void offer(int row, double score) {
+            int k = rows.length;
+            if (k == 0 || (size == k && score <= scores[k - 1])) return;
+            int pos = size < k ? size++ : k - 1;
+            while (pos > 0 && scores[pos - 1] < score) {
+                scores[pos] = scores[pos - 1];
+                rows[pos] = rows[pos - 1];
+                pos--;
+            }
+            scores[pos] = score;
+            rows[pos] = row;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.nutrition.dietbalancetracker.model.FoodCategory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * FOOD SEARCH INDEX
+ * =================
+ * In-memory trigram index over food names and descriptions for
+ * substring ("contains") search without a LIKE '%q%' table scan.
+ *
+ * How a search works:
+ * - Every 3-character window ("trigram") of each lowercased name and
+ *   description maps to a sorted list of the rows that contain it.
+ * - A query's trigrams are looked up and their lists intersected,
+ *   smallest first; only rows in every list can contain the query.
+ * - Those few candidates are checked with a real contains() to drop
+ *   false positives (trigrams present but not adjacent).
+ * - Queries shorter than 3 characters have no trigrams and scan all rows.
+ *
+ * Rows, names, descriptions and active flags come from the FoodNutrientMatrix
+ * snapshot, so catalog changes made on any node are picked up with it.
+ * The index is rebuilt whenever that snapshot is replaced.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class FoodSearchIndex {
+
+    private final FoodNutrientMatrix foodNutrientMatrix;
+
+    private volatile Trigrams index;
+
+    /**
+     * Ids of active foods whose name or description contains the query
+     * (case-insensitive), optionally restricted to a category. Ascending id order.
+     */
+    public List<Long> search(String query, FoodCategory category) {
+        Trigrams current = currentIndex();
+        FoodNutrientMatrix.Snapshot foods = current.source;
+        String q = normalize(query);
+        List<Long> result = new ArrayList<>();
+        if (q.length() < 3) {
+            for (int row = 0; row < foods.size(); row++) {
+                if (current.matches(row, q, category)) result.add(foods.id(row));
+            }
+            return result;
+        }
+
+        for (int row : current.candidates(q)) {
+            if (current.matches(row, q, category)) result.add(foods.id(row));
+        }
+        return result;
+    }
+
+    private Trigrams currentIndex() {
+        FoodNutrientMatrix.Snapshot source = foodNutrientMatrix.current();
+        Trigrams current = index;
+        if (current == null || current.source != source) {
+            current = new Trigrams(source);
+            index = current;
+            log.debug("Food search index built: {} foods, {} trigrams", source.size(), current.postings.size());
+        }
+        return current;
+    }
+
+    /** Trigram posting lists over one snapshot; never changed after construction. */
+    private static final class Trigrams {
+
+        final FoodNutrientMatrix.Snapshot source;
+        final String[] names;
+        final String[] descriptions;
+        final Map<Long, IntList> postings = new HashMap<>();
+
+        Trigrams(FoodNutrientMatrix.Snapshot source) {
+            this.source = source;
+            this.names = new String[source.size()];
+            this.descriptions = new String[source.size()];
+            // Snapshot rows are in id order, so appending keeps every list sorted
+            for (int row = 0; row < names.length; row++) {
+                names[row] = normalize(source.name(row));
+                descriptions[row] = normalize(source.description(row));
+                for (long trigram : trigrams(names[row] + "\n" + descriptions[row])) {
+                    postings.computeIfAbsent(trigram, t -> new IntList()).add(row);
+                }
+            }
+        }
+
+        /** Rows containing every trigram of the query (a superset of the real matches). */
+        int[] candidates(String q) {
+            List<IntList> lists = new ArrayList<>();
+            for (long trigram : trigrams(q)) {
+                IntList list = postings.get(trigram);
+                if (list == null) return new int[0];
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(l -> l.size));
+
+            int[] result = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+            int count = result.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                count = intersect(result, count, lists.get(i));
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        boolean matches(int row, String q, FoodCategory category) {
+            if (!source.isActive(row)) return false;
+            if (category != null && source.category(row) != category) return false;
+            return names[row].contains(q) || descriptions[row].contains(q);
+        }
+    }
+
+    /** Keep only the first {@code count} rows of {@code rows} that are also in {@code list}; returns the new count. */
+    private static int intersect(int[] rows, int count, IntList list) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < list.size; i++) {
+            int row = rows[i];
+            // Posting lists are sorted, so skip ahead with a binary search
+            j = Arrays.binarySearch(list.values, j, list.size, row);
+            if (j >= 0) {
+                rows[kept++] = row;
+                j++;
+            } else {
+                j = -j - 1;
+            }
+        }
+        return kept;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Distinct trigrams of a string, each packed as three 16-bit chars in a long. */
+    private static Set<Long> trigrams(String text) {
+        Set<Long> result = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return result;
+    }
+
+    /** A growable, sorted list of row numbers. */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size > 0 && values[size - 1] == value) return;
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+    }
+}
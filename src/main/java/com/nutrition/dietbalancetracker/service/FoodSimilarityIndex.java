@@ -0,0 +1,143 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.nutrition.dietbalancetracker.model.FoodCategory;
+import com.nutrition.dietbalancetracker.model.Nutrient;
+import com.nutrition.dietbalancetracker.model.NutrientVector;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * FOOD SIMILARITY INDEX
+ * =====================
+ * Finds the foods whose nutrient profile is closest to a given food,
+ * for suggesting substitutes.
+ *
+ * Every food's per-serving nutrients are divided by that nutrient's
+ * standard deviation across the catalog, so calories (hundreds) and
+ * vitamin B12 (single digits) weigh the same, and stored as floats in one
+ * packed array ([row * SIZE + nutrient]). A query is a straight scan of
+ * that array computing squared Euclidean distance, keeping the k closest
+ * in a small sorted buffer. The inner loop runs over contiguous floats
+ * with no objects involved, which the JIT vectorizes, so tens of
+ * thousands of foods still take well under a millisecond.
+ *
+ * Built from the FoodNutrientMatrix snapshot and rebuilt whenever that
+ * snapshot is replaced.
+ */
+@Component
+@RequiredArgsConstructor
+public class FoodSimilarityIndex {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final int SIZE = NutrientVector.SIZE;
+
+    private final FoodNutrientMatrix foodNutrientMatrix;
+
+    private volatile Packed packed;
+
+    /**
+     * Ids of the active foods nearest to the given food, closest first,
+     * excluding the food itself. Restricted to the categories if any are given.
+     *
+     * @throws RuntimeException if the food is not in the catalog
+     */
+    public List<Long> similar(Long foodItemId, Set<FoodCategory> categories, int limit) {
+        Packed index = currentPacked();
+        FoodNutrientMatrix.Snapshot foods = index.source;
+        int target = foods.rowOf(foodItemId);
+        if (target < 0) {
+            throw new RuntimeException("Food not found");
+        }
+        int k = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        // The k best so far, ascending by distance
+        int[] bestRows = new int[k];
+        float[] bestDistances = new float[k];
+        int found = 0;
+
+        float[] v = index.vectors;
+        int t = target * SIZE;
+        for (int row = 0; row < foods.size(); row++) {
+            if (row == target || !foods.isActive(row)) continue;
+            if (!categories.isEmpty() && !categories.contains(foods.category(row))) continue;
+
+            int r = row * SIZE;
+            float distance = 0f;
+            for (int i = 0; i < SIZE; i++) {
+                float d = v[r + i] - v[t + i];
+                distance += d * d;
+            }
+            if (found == k && distance >= bestDistances[k - 1]) continue;
+
+            // Insert into the sorted buffer, dropping the current worst when full
+            int pos = found < k ? found++ : k - 1;
+            while (pos > 0 && bestDistances[pos - 1] > distance) {
+                bestDistances[pos] = bestDistances[pos - 1];
+                bestRows[pos] = bestRows[pos - 1];
+                pos--;
+            }
+            bestDistances[pos] = distance;
+            bestRows[pos] = row;
+        }
+
+        List<Long> ids = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            ids.add(foods.id(bestRows[i]));
+        }
+        return ids;
+    }
+
+    private Packed currentPacked() {
+        FoodNutrientMatrix.Snapshot source = foodNutrientMatrix.current();
+        Packed index = packed;
+        if (index == null || index.source != source) {
+            index = new Packed(source);
+            packed = index;
+        }
+        return index;
+    }
+
+    /** Scaled nutrient vectors of one snapshot, packed row after row. */
+    private static final class Packed {
+
+        final FoodNutrientMatrix.Snapshot source;
+        final float[] vectors;
+
+        Packed(FoodNutrientMatrix.Snapshot source) {
+            this.source = source;
+            int n = source.size();
+            Nutrient[] nutrients = Nutrient.values();
+
+            // Standard deviation of each nutrient across the catalog
+            double[] scale = new double[SIZE];
+            for (Nutrient nutrient : nutrients) {
+                double sum = 0;
+                double sumSquares = 0;
+                for (int row = 0; row < n; row++) {
+                    double x = source.value(row, nutrient);
+                    sum += x;
+                    sumSquares += x * x;
+                }
+                double mean = n > 0 ? sum / n : 0;
+                double variance = n > 0 ? sumSquares / n - mean * mean : 0;
+                // A nutrient every food has the same amount of can't tell foods apart
+                scale[nutrient.ordinal()] = variance > 1e-12 ? 1.0 / Math.sqrt(variance) : 0;
+            }
+
+            this.vectors = new float[n * SIZE];
+            for (int row = 0; row < n; row++) {
+                for (Nutrient nutrient : nutrients) {
+                    vectors[row * SIZE + nutrient.ordinal()] =
+                            (float) (source.value(row, nutrient) * scale[nutrient.ordinal()]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nutrition.dietbalancetracker.dto.NutrientAnalysisSnapshotDTO;
+import com.nutrition.dietbalancetracker.model.AgeGroup;
+import com.nutrition.dietbalancetracker.model.BatchJobCheckpoint;
+import com.nutrition.dietbalancetracker.model.DailyNutrientRollup;
+import com.nutrition.dietbalancetracker.model.DeficiencyLevel;
+import com.nutrition.dietbalancetracker.model.DeficiencyThreshold;
+import com.nutrition.dietbalancetracker.model.Nutrient;
+import com.nutrition.dietbalancetracker.model.NutrientAnalysis;
+import com.nutrition.dietbalancetracker.model.NutrientDeficiency;
+import com.nutrition.dietbalancetracker.model.NutrientVector;
+import com.nutrition.dietbalancetracker.model.User;
+import com.nutrition.dietbalancetracker.repository.BatchJobCheckpointRepository;
+import com.nutrition.dietbalancetracker.repository.DailyNutrientRollupRepository;
+import com.nutrition.dietbalancetracker.repository.DeficiencyThresholdRepository;
+import com.nutrition.dietbalancetracker.repository.NutrientAnalysisRepository;
+import com.nutrition.dietbalancetracker.repository.NutrientDeficiencyRepository;
+import com.nutrition.dietbalancetracker.repository.UserRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * NUTRIENT ANALYSIS BATCH SERVICE
+ * ===============================
+ * Nightly job that writes a NutrientAnalysis snapshot (plus its
+ * NutrientDeficiency rows) for every user who logged food in the window,
+ * so reports can read precomputed results instead of computing them live.
+ *
+ * How it runs:
+ * - Users are read in id order, a chunk at a time, and each chunk is
+ *   analyzed on a small fixed thread pool in its own transaction.
+ * - A chunk first deletes that day's snapshots for its users, then inserts
+ *   new ones, so re-running a chunk is harmless.
+ * - Progress is saved in batch_job_checkpoints. It only moves past a chunk once
+ *   every earlier chunk has finished too, and is written in the transaction
+ *   of the chunk that moves it, so snapshots and the progress covering them
+ *   commit together. After a crash or failed chunk the next run resumes from
+ *   there.
+ * - With several app instances, only the one holding the job's lease
+ *   (BatchJobLeaseService) runs it; the others skip that night's run.
+ */
+@Service
+@Slf4j
+public class NutrientAnalysisBatchService {
+
+    private static final String JOB_NAME = "nutrient-analysis";
+
+    private final UserRepository userRepository;
+    private final DailyNutrientRollupRepository rollupRepository;
+    private final NutrientAnalysisRepository analysisRepository;
+    private final NutrientDeficiencyRepository deficiencyRepository;
+    private final DeficiencyThresholdRepository thresholdRepository;
+    private final BatchJobCheckpointRepository checkpointRepository;
+    private final NutrientAnalysisService nutrientAnalysisService;
+    private final BatchJobLeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+    private final int threads;
+    private final int windowDays;
+    private final int keepDays;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public NutrientAnalysisBatchService(UserRepository userRepository,
+                                        DailyNutrientRollupRepository rollupRepository,
+                                        NutrientAnalysisRepository analysisRepository,
+                                        NutrientDeficiencyRepository deficiencyRepository,
+                                        DeficiencyThresholdRepository thresholdRepository,
+                                        BatchJobCheckpointRepository checkpointRepository,
+                                        NutrientAnalysisService nutrientAnalysisService,
+                                        BatchJobLeaseService leaseService,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${analysis.batch.chunk-size:500}") int chunkSize,
+                                        @Value("${analysis.batch.threads:4}") int threads,
+                                        @Value("${analysis.batch.window-days:7}") int windowDays,
+                                        @Value("${analysis.batch.keep-days:30}") int keepDays) {
+        this.userRepository = userRepository;
+        this.rollupRepository = rollupRepository;
+        this.analysisRepository = analysisRepository;
+        this.deficiencyRepository = deficiencyRepository;
+        this.thresholdRepository = thresholdRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.nutrientAnalysisService = nutrientAnalysisService;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+        this.windowDays = windowDays;
+        this.keepDays = keepDays;
+    }
+
+    /** Analyze everyone's last full window, ending yesterday. */
+    @Scheduled(cron = "${analysis.batch.cron:0 30 2 * * *}")
+    public void runNightly() {
+        run(LocalDate.now().minusDays(1));
+    }
+
+    /**
+     * Analyze the window ending on endDate for every user.
+     * Resumes an unfinished run for the same date; does nothing if it already
+     * completed or another node is running it.
+     */
+    public void run(LocalDate endDate) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Nutrient analysis batch is already running - skipping");
+            return;
+        }
+        try {
+            if (!leaseService.acquire(JOB_NAME)) {
+                log.info("Nutrient analysis batch is running on another node - skipping");
+                return;
+            }
+            try {
+                execute(endDate);
+            } finally {
+                leaseService.release(JOB_NAME);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void execute(LocalDate endDate) {
+        BatchJobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElseGet(() -> {
+            BatchJobCheckpoint c = new BatchJobCheckpoint();
+            c.setJobName(JOB_NAME);
+            return c;
+        });
+        if (endDate.equals(checkpoint.getRunDate())) {
+            if (checkpoint.getStatus() == BatchJobCheckpoint.Status.COMPLETED) {
+                log.info("Nutrient analysis for {} already completed", endDate);
+                return;
+            }
+            log.info("Resuming nutrient analysis for {} after user {}", endDate, checkpoint.getLastUserId());
+        } else {
+            checkpoint.restart(endDate);
+            checkpoint = checkpointRepository.save(checkpoint);
+        }
+
+        Window window = new Window(endDate.minusDays(windowDays - 1L), endDate, endDate.minusDays(keepDays), loadThresholds());
+        Progress progress = new Progress(endDate, checkpoint.getLastUserId(), checkpoint.getUsersProcessed());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        // Bounds how many chunks of ids are held in memory at once
+        Semaphore inFlight = new Semaphore(threads * 2);
+        AtomicBoolean failed = new AtomicBoolean();
+        long started = System.currentTimeMillis();
+
+        try {
+            long cursor = checkpoint.getLastUserId();
+            int chunkIndex = 0;
+            while (!failed.get()) {
+                if (!leaseService.renew(JOB_NAME)) {
+                    log.warn("Nutrient analysis lease for {} was lost - stopping", endDate);
+                    failed.set(true);
+                    break;
+                }
+                List<Long> ids = userRepository.findIdsAfter(cursor, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) break;
+                cursor = ids.get(ids.size() - 1);
+
+                int index = chunkIndex++;
+                progress.submitted(index, cursor, ids.size());
+                inFlight.acquireUninterruptibly();
+                pool.execute(() -> {
+                    try {
+                        Long written = transactionTemplate.execute(status -> {
+                            analyzeChunk(ids, window);
+                            return progress.saveWithChunk(index);
+                        });
+                        progress.committed(index, written);
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        log.error("Nutrient analysis chunk {} (users {}..{}) failed: {}",
+                                index, ids.get(0), ids.get(ids.size() - 1), e.getMessage());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            pool.shutdown();
+            awaitQuietly(pool);
+        }
+
+        if (failed.get()) {
+            log.warn("Nutrient analysis for {} stopped after user {}; the next run resumes from there",
+                    endDate, progress.lastUserId());
+            progress.logFinishedAhead();
+            return;
+        }
+        progress.finish();
+        log.info("Nutrient analysis for {} completed: {} users in {} ms",
+                endDate, progress.usersProcessed(), System.currentTimeMillis() - started);
+    }
+
+    /** Replace the window's snapshots for one chunk of users. */
+    private void analyzeChunk(List<Long> userIds, Window window) {
+        Map<Long, NutrientVector> totals = new HashMap<>();
+        Map<Long, Integer> activeDays = new HashMap<>();
+        for (DailyNutrientRollup day : rollupRepository.findByUserIdInAndRollupDateBetween(userIds, window.start, window.end)) {
+            if (day.getMealCount() <= 0) continue;
+            totals.computeIfAbsent(day.getUserId(), id -> new NutrientVector()).addScaled(day.getNutrientTotals(), 0, 1.0);
+            activeDays.merge(day.getUserId(), 1, Integer::sum);
+        }
+
+        deficiencyRepository.deleteSnapshots(userIds, window.end, window.keepFrom);
+        analysisRepository.deleteSnapshots(userIds, window.end, window.keepFrom);
+        if (totals.isEmpty()) return;
+
+        List<NutrientAnalysis> analyses = new ArrayList<>();
+        List<NutrientDeficiency> deficiencies = new ArrayList<>();
+        for (User user : userRepository.findAllWithHealthDataByIdIn(totals.keySet())) {
+            NutrientVector sum = totals.get(user.getId());
+            NutrientAnalysis analysis = toAnalysis(user, window, sum);
+            analyses.add(analysis);
+
+            NutrientVector avg = sum.copy().divide(activeDays.get(user.getId()));
+            NutrientVector rec = recommendedFor(user, window);
+            for (Nutrient nutrient : Nutrient.values()) {
+                NutrientDeficiency deficiency = deficiency(analysis, nutrient, avg.get(nutrient), rec.get(nutrient));
+                if (deficiency != null) deficiencies.add(deficiency);
+            }
+        }
+        analysisRepository.saveAll(analyses);
+        deficiencyRepository.saveAll(deficiencies);
+    }
+
+    private NutrientAnalysis toAnalysis(User user, Window window, NutrientVector sum) {
+        NutrientAnalysis a = new NutrientAnalysis();
+        a.setUser(user);
+        a.setStartDate(window.start);
+        a.setEndDate(window.end);
+        a.setTotalCalories(sum.get(Nutrient.CALORIES));
+        a.setTotalProtein(sum.get(Nutrient.PROTEIN));
+        a.setTotalCarbohydrates(sum.get(Nutrient.CARBOHYDRATES));
+        a.setTotalFat(sum.get(Nutrient.FAT));
+        a.setTotalFiber(sum.get(Nutrient.FIBER));
+        a.setTotalVitaminA(sum.get(Nutrient.VITAMIN_A));
+        a.setTotalVitaminC(sum.get(Nutrient.VITAMIN_C));
+        a.setTotalVitaminD(sum.get(Nutrient.VITAMIN_D));
+        a.setTotalCalcium(sum.get(Nutrient.CALCIUM));
+        a.setTotalIron(sum.get(Nutrient.IRON));
+        return a;
+    }
+
+    /**
+     * A deficiency row if the daily average is below 90% of the recommendation
+     * (levels as documented on DeficiencyLevel), otherwise null.
+     */
+    private NutrientDeficiency deficiency(NutrientAnalysis analysis, Nutrient nutrient, double actual, double recommended) {
+        if (recommended <= 0) return null;
+        double pct = actual / recommended * 100;
+        DeficiencyLevel level;
+        if (pct < 50) level = DeficiencyLevel.SEVERE;
+        else if (pct < 70) level = DeficiencyLevel.MODERATE;
+        else if (pct < 90) level = DeficiencyLevel.MILD;
+        else return null;
+
+        NutrientDeficiency d = new NutrientDeficiency();
+        d.setAnalysis(analysis);
+        d.setNutrient(nutrient);
+        d.setActualIntake(actual);
+        d.setRecommendedIntake(recommended);
+        d.setDeficiencyPercentage(100 - pct);
+        d.setLevel(level);
+        return d;
+    }
+
+    /**
+     * Admin-configured thresholds for the user's age group where set,
+     * otherwise the BMI-adjusted defaults used by the live analysis.
+     */
+    private NutrientVector recommendedFor(User user, Window window) {
+        NutrientVector rec = nutrientAnalysisService.recommendedDailyValues(user);
+        NutrientVector configured = window.thresholds.get(AgeGroup.forAge(user.getAge()));
+        if (configured != null) {
+            for (Nutrient nutrient : Nutrient.values()) {
+                if (configured.get(nutrient) > 0) rec.set(nutrient, configured.get(nutrient));
+            }
+        }
+        return rec;
+    }
+
+    private Map<AgeGroup, NutrientVector> loadThresholds() {
+        Map<AgeGroup, NutrientVector> byGroup = new EnumMap<>(AgeGroup.class);
+        for (DeficiencyThreshold t : thresholdRepository.findAll()) {
+            if (t.getAgeGroup() == null || t.getNutrient() == null || t.getDailyRequirement() == null) continue;
+            byGroup.computeIfAbsent(t.getAgeGroup(), g -> new NutrientVector()).set(t.getNutrient(), t.getDailyRequirement());
+        }
+        return byGroup;
+    }
+
+    /** The most recent snapshot for a user, if the batch job has analyzed them. */
+    public Optional<NutrientAnalysisSnapshotDTO> latestSnapshot(Long userId) {
+        return analysisRepository.findFirstByUserIdOrderByEndDateDescCalculatedAtDesc(userId).map(a -> {
+            NutrientAnalysisSnapshotDTO dto = new NutrientAnalysisSnapshotDTO();
+            dto.setStartDate(a.getStartDate());
+            dto.setEndDate(a.getEndDate());
+            dto.setCalculatedAt(a.getCalculatedAt());
+            dto.setTotalCalories(a.getTotalCalories());
+            dto.setTotalProtein(a.getTotalProtein());
+            dto.setTotalCarbohydrates(a.getTotalCarbohydrates());
+            dto.setTotalFat(a.getTotalFat());
+            dto.setTotalFiber(a.getTotalFiber());
+            dto.setTotalVitaminA(a.getTotalVitaminA());
+            dto.setTotalVitaminC(a.getTotalVitaminC());
+            dto.setTotalVitaminD(a.getTotalVitaminD());
+            dto.setTotalCalcium(a.getTotalCalcium());
+            dto.setTotalIron(a.getTotalIron());
+
+            List<NutrientAnalysisSnapshotDTO.Deficiency> deficiencies = new ArrayList<>();
+            for (NutrientDeficiency d : deficiencyRepository.findByAnalysisIdOrderByDeficiencyPercentageDesc(a.getId())) {
+                NutrientAnalysisSnapshotDTO.Deficiency item = new NutrientAnalysisSnapshotDTO.Deficiency();
+                item.setNutrient(d.getNutrient());
+                item.setActualIntake(d.getActualIntake());
+                item.setRecommendedIntake(d.getRecommendedIntake());
+                item.setDeficiencyPercentage(d.getDeficiencyPercentage());
+                item.setLevel(d.getLevel());
+                deficiencies.add(item);
+            }
+            dto.setDeficiencies(deficiencies);
+            return dto;
+        });
+    }
+
+    private static void awaitQuietly(ExecutorService pool) {
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("Waiting for nutrient analysis chunks to finish...");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** The dates and thresholds one run works with. */
+    private record Window(LocalDate start, LocalDate end, LocalDate keepFrom, Map<AgeGroup, NutrientVector> thresholds) { }
+
+    /**
+     * Moves the checkpoint forward as chunks finish. Chunks finish out of order,
+     * so it only advances over a run of consecutive committed chunks.
+     *
+     * The chunk that is next in line writes the new position inside its own
+     * transaction (saveWithChunk). If later chunks commit in between, the
+     * extra distance they add is written once the earlier one has committed.
+     * The UPDATE never moves the row back, so writes landing out of order are
+     * harmless.
+     */
+    private final class Progress {
+
+        private final LocalDate runDate;
+        private final Map<Integer, long[]> chunks = new HashMap<>(); // index -> {last user id, size}
+        private final TreeSet<Integer> committedAhead = new TreeSet<>();
+        private int next;
+        private long lastUserId;
+        private long usersProcessed;
+        private long written; // furthest lastUserId saved to the checkpoint row
+
+        Progress(LocalDate runDate, long lastUserId, long usersProcessed) {
+            this.runDate = runDate;
+            this.lastUserId = lastUserId;
+            this.usersProcessed = usersProcessed;
+            this.written = lastUserId;
+        }
+
+        synchronized void submitted(int index, long lastUserId, int size) {
+            chunks.put(index, new long[] {lastUserId, size});
+        }
+
+        synchronized long lastUserId() {
+            return lastUserId;
+        }
+
+        synchronized long usersProcessed() {
+            return usersProcessed;
+        }
+
+        /**
+         * Called inside chunk index's transaction once its snapshots are written.
+         * If every earlier chunk has committed, saves the position this chunk (and
+         * any already committed chunks right after it) reaches and returns its
+         * lastUserId; otherwise saves nothing and returns null.
+         */
+        Long saveWithChunk(int index) {
+            long last;
+            long processed;
+            synchronized (this) {
+                if (index != next) return null;
+                last = lastUserId;
+                processed = usersProcessed;
+                for (int k = index; k == index || committedAhead.contains(k); k++) {
+                    long[] chunk = chunks.get(k);
+                    last = chunk[0];
+                    processed += chunk[1];
+                }
+            }
+            checkpointRepository.advance(JOB_NAME, runDate, last, processed, LocalDateTime.now());
+            return last;
+        }
+
+        /** Called after chunk index has committed; written is what saveWithChunk returned. */
+        void committed(int index, Long written) {
+            long last;
+            long processed;
+            synchronized (this) {
+                committedAhead.add(index);
+                while (committedAhead.remove(next)) {
+                    long[] chunk = chunks.remove(next++);
+                    lastUserId = chunk[0];
+                    usersProcessed += chunk[1];
+                }
+                if (written != null) this.written = Math.max(this.written, written);
+                // Later chunks committed while this one was running: save the rest of the way
+                if (lastUserId <= this.written) return;
+                this.written = lastUserId;
+                last = lastUserId;
+                processed = usersProcessed;
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    checkpointRepository.advance(JOB_NAME, runDate, last, processed, LocalDateTime.now()));
+        }
+
+        /** After a failure: log the chunks that finished past the checkpoint and will run again. */
+        synchronized void logFinishedAhead() {
+            if (committedAhead.isEmpty()) return;
+            long users = 0;
+            for (int index : committedAhead) users += chunks.get(index)[1];
+            log.warn("Nutrient analysis for {}: {} later chunk(s) ({} users, up to user {}) finished but lie past "
+                    + "the checkpoint; they will be redone on resume", runDate, committedAhead.size(), users,
+                    chunks.get(committedAhead.last())[0]);
+        }
+
+        void finish() {
+            transactionTemplate.executeWithoutResult(status -> checkpointRepository.markStatus(
+                    JOB_NAME, runDate, BatchJobCheckpoint.Status.COMPLETED, LocalDateTime.now()));
+        }
+    }
+}
@@ -1,21 +1,19 @@
 package com.nutrition.dietbalancetracker.service;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import org.springframework.stereotype.Service;
 
 import com.nutrition.dietbalancetracker.dto.NutrientAnalysisDTO;
 import com.nutrition.dietbalancetracker.dto.NutrientAnalysisDTO.NutrientDetail;
 import com.nutrition.dietbalancetracker.dto.NutrientAnalysisDTO.Recommendation;
-import com.nutrition.dietbalancetracker.model.DietaryEntry;
-import com.nutrition.dietbalancetracker.model.NutrientProfile;
+import com.nutrition.dietbalancetracker.model.Nutrient;
+import com.nutrition.dietbalancetracker.model.NutrientVector;
 import com.nutrition.dietbalancetracker.model.User;
-import com.nutrition.dietbalancetracker.repository.DietaryEntryRepository;
 import com.nutrition.dietbalancetracker.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -31,138 +29,107 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class NutrientAnalysisService {
 
-    private final DietaryEntryRepository dietaryEntryRepository;
+    private final RollupPrefixIndex rollupPrefixIndex;
     private final UserRepository userRepository;
+    private final FoodRecommendationEngine recommendationEngine;
+
+    // Foods suggested per low nutrient
+    private static final int SUGGESTIONS_PER_NUTRIENT = 4;
+
+    // Nutrients we make recommendations for, in display order, with their display names
+    private static final Map<Nutrient, String> RECOMMENDED_NUTRIENTS = new LinkedHashMap<>();
+    static {
+        RECOMMENDED_NUTRIENTS.put(Nutrient.PROTEIN, "Protein");
+        RECOMMENDED_NUTRIENTS.put(Nutrient.FIBER, "Fiber");
+        RECOMMENDED_NUTRIENTS.put(Nutrient.VITAMIN_C, "Vitamin C");
+        RECOMMENDED_NUTRIENTS.put(Nutrient.VITAMIN_D, "Vitamin D");
+        RECOMMENDED_NUTRIENTS.put(Nutrient.CALCIUM, "Calcium");
+        RECOMMENDED_NUTRIENTS.put(Nutrient.IRON, "Iron");
+        RECOMMENDED_NUTRIENTS.put(Nutrient.POTASSIUM, "Potassium");
+        RECOMMENDED_NUTRIENTS.put(Nutrient.VITAMIN_B12, "Vitamin B12");
+    }
+
+    // Base Recommended Daily Values (adult approximate), indexed by Nutrient ordinal.
+    // Calories are not scored against a target here, so they stay at 0.
+    private static final double[] BASE_RDA = new NutrientVector()
+            .set(Nutrient.PROTEIN, 50).set(Nutrient.CARBOHYDRATES, 275).set(Nutrient.FAT, 78).set(Nutrient.FIBER, 28)
+            .set(Nutrient.VITAMIN_A, 900).set(Nutrient.VITAMIN_C, 90).set(Nutrient.VITAMIN_D, 20)
+            .set(Nutrient.VITAMIN_E, 15).set(Nutrient.VITAMIN_K, 120).set(Nutrient.VITAMIN_B12, 2.4)
+            .set(Nutrient.CALCIUM, 1000).set(Nutrient.IRON, 18).set(Nutrient.MAGNESIUM, 400)
+            .set(Nutrient.ZINC, 11).set(Nutrient.POTASSIUM, 2600)
+            .values();
 
     /**
      * Analyze nutrition for today's meals.
      */
     public NutrientAnalysisDTO analyzeToday(Long userId) {
-        LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
-        LocalDateTime endOfDay = LocalDateTime.now().withHour(23).withMinute(59).withSecond(59);
-
-        List<DietaryEntry> entries = dietaryEntryRepository
-                .findByUserIdAndConsumedAtBetweenOrderByConsumedAtDesc(userId, startOfDay, endOfDay);
-
-        User user = userRepository.findById(userId).orElse(null);
-        return buildAnalysis(entries, 1, user);
+        LocalDate today = LocalDate.now();
+        return analyzeRollups(userId, today, today, false);
     }
 
     /**
      * Analyze nutrition for the past 7 days (averaged per day).
      */
     public NutrientAnalysisDTO analyzeWeek(Long userId) {
-        LocalDateTime startOfWeek = LocalDateTime.now().minusDays(7).withHour(0).withMinute(0).withSecond(0).withNano(0);
-        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = LocalDate.now();
+        return analyzeRollups(userId, today.minusDays(7), today, true);
+    }
 
-        List<DietaryEntry> entries = dietaryEntryRepository
-                .findByUserIdAndConsumedAtBetweenOrderByConsumedAtDesc(userId, startOfWeek, now);
+    /**
+     * Analyze any date range (inclusive), averaged per day with entries.
+     * Cost does not depend on the length of the range.
+     */
+    public NutrientAnalysisDTO analyzeRange(Long userId, LocalDate from, LocalDate to) {
+        return analyzeRollups(userId, from, to, true);
+    }
 
-        // Count distinct days with entries
-        Set<String> activeDays = new HashSet<>();
-        for (DietaryEntry e : entries) {
-            activeDays.add(e.getConsumedAt().toLocalDate().toString());
-        }
-        int days = Math.max(activeDays.size(), 1);
+    /**
+     * Look up the range totals from the user's running daily totals
+     * (one subtraction, however many days) and analyze the result.
+     *
+     * @param averagePerActiveDay divide totals by the number of days that have entries
+     */
+    private NutrientAnalysisDTO analyzeRollups(Long userId, LocalDate from, LocalDate to, boolean averagePerActiveDay) {
+        RollupPrefixIndex.RangeTotals range = rollupPrefixIndex.sum(userId, from, to);
+        int days = averagePerActiveDay ? Math.max(range.activeDays(), 1) : 1;
 
         User user = userRepository.findById(userId).orElse(null);
-        return buildAnalysis(entries, days, user);
+        return buildAnalysis(range.nutrients(), range.mealCount(), days, user);
     }
 
     /**
-     * Core analysis logic: aggregate nutrients from entries,
-     * compare against recommended daily values, generate recommendations.
+     * Build the analysis from already-summed nutrient totals.
+     * Totals are averaged per day when looking at a multi-day period.
      */
-    private NutrientAnalysisDTO buildAnalysis(List<DietaryEntry> entries, int days, User user) {
+    private NutrientAnalysisDTO buildAnalysis(NutrientVector totals, int mealCount, int days, User user) {
         NutrientAnalysisDTO dto = new NutrientAnalysisDTO();
-        dto.setMealCount(entries.size());
-
-        // Accumulated nutrient totals
-        double calories = 0, protein = 0, carbs = 0, fat = 0, fiber = 0;
-        double vitA = 0, vitC = 0, vitD = 0, vitE = 0, vitK = 0, vitB12 = 0;
-        double calcium = 0, iron = 0, magnesium = 0, zinc = 0, potassium = 0;
-
-        for (DietaryEntry entry : entries) {
-            NutrientProfile np = entry.getFoodItem() != null ? entry.getFoodItem().getNutrientProfile() : null;
-            if (np == null) continue;
-            double p = entry.getPortionSize() != null ? entry.getPortionSize() : 1.0;
-
-            calories += np.getCalories() * p;
-            protein += np.getProtein() * p;
-            carbs += np.getCarbohydrates() * p;
-            fat += np.getFat() * p;
-            fiber += np.getFiber() * p;
-            vitA += np.getVitaminA() * p;
-            vitC += np.getVitaminC() * p;
-            vitD += np.getVitaminD() * p;
-            vitE += np.getVitaminE() * p;
-            vitK += np.getVitaminK() * p;
-            vitB12 += np.getVitaminB12() * p;
-            calcium += np.getCalcium() * p;
-            iron += np.getIron() * p;
-            magnesium += np.getMagnesium() * p;
-            zinc += np.getZinc() * p;
-            potassium += np.getPotassium() * p;
-        }
-
-        // Average per day when looking at a multi-day period
-        double d = days;
-        dto.setTotalCalories(calories / d);
+        dto.setMealCount(mealCount);
 
-        // ── BMI-adjusted Recommended Daily Values ──
-        // Base values (adult approximate)
-        double recProtein = 50, recCarbs = 275, recFat = 78, recFiber = 28;
-        double recVitA = 900, recVitC = 90, recVitD = 20, recVitE = 15, recVitK = 120, recVitB12 = 2.4;
-        double recCalcium = 1000, recIron = 18, recMagnesium = 400, recZinc = 11, recPotassium = 2600;
-
-        // Adjust RDAs based on user's BMI profile
-        if (user != null && user.getBmi() != null) {
-            Double bmi = user.getBmi();
-            if (bmi < 18.5) {
-                // Underweight: boost calories & protein to encourage healthy weight gain
-                recProtein *= 1.3;   // +30% protein
-                recCarbs *= 1.2;     // +20% carbs
-                recFat *= 1.1;       // +10% fat
-                recCalcium *= 1.15;  // bone support
-                recIron *= 1.1;
-            } else if (bmi >= 25 && bmi < 30) {
-                // Overweight: moderate reduction in calorie-dense macros
-                recCarbs *= 0.85;    // -15% carbs
-                recFat *= 0.85;      // -15% fat
-                recProtein *= 1.1;   // slightly more protein for satiety
-                recFiber *= 1.15;    // +15% fiber for fullness
-            } else if (bmi >= 30) {
-                // Obese: more significant reduction, higher protein & fiber
-                recCarbs *= 0.75;    // -25% carbs
-                recFat *= 0.75;      // -25% fat
-                recProtein *= 1.2;   // +20% protein for satiety & muscle preservation
-                recFiber *= 1.25;    // +25% fiber
-                recVitD *= 1.3;      // obese individuals often low in Vit D
-            }
-            // Normal weight (18.5-25): keep defaults
-        }
+        NutrientVector avg = totals.copy().divide(days);
+        NutrientVector rec = recommendedDailyValues(user);
+        dto.setTotalCalories(avg.get(Nutrient.CALORIES));
 
         // Macronutrients
         List<NutrientDetail> macros = new ArrayList<>();
-        macros.add(new NutrientDetail("Protein", protein / d, recProtein, "g"));
-        macros.add(new NutrientDetail("Carbohydrates", carbs / d, recCarbs, "g"));
-        macros.add(new NutrientDetail("Fat", fat / d, recFat, "g"));
-        macros.add(new NutrientDetail("Fiber", fiber / d, recFiber, "g"));
+        macros.add(detail("Protein", Nutrient.PROTEIN, avg, rec, "g"));
+        macros.add(detail("Carbohydrates", Nutrient.CARBOHYDRATES, avg, rec, "g"));
+        macros.add(detail("Fat", Nutrient.FAT, avg, rec, "g"));
+        macros.add(detail("Fiber", Nutrient.FIBER, avg, rec, "g"));
         dto.setMacronutrients(macros);
 
         // Micronutrients
         List<NutrientDetail> micros = new ArrayList<>();
-        micros.add(new NutrientDetail("Vitamin A", vitA / d, recVitA, "mcg"));
-        micros.add(new NutrientDetail("Vitamin C", vitC / d, recVitC, "mg"));
-        micros.add(new NutrientDetail("Vitamin D", vitD / d, recVitD, "mcg"));
-        micros.add(new NutrientDetail("Vitamin E", vitE / d, recVitE, "mg"));
-        micros.add(new NutrientDetail("Vitamin K", vitK / d, recVitK, "mcg"));
-        micros.add(new NutrientDetail("Vitamin B12", vitB12 / d, recVitB12, "mcg"));
-        micros.add(new NutrientDetail("Calcium", calcium / d, recCalcium, "mg"));
-        micros.add(new NutrientDetail("Iron", iron / d, recIron, "mg"));
-        micros.add(new NutrientDetail("Magnesium", magnesium / d, recMagnesium, "mg"));
-        micros.add(new NutrientDetail("Zinc", zinc / d, recZinc, "mg"));
-        micros.add(new NutrientDetail("Potassium", potassium / d, recPotassium, "mg"));
+        micros.add(detail("Vitamin A", Nutrient.VITAMIN_A, avg, rec, "mcg"));
+        micros.add(detail("Vitamin C", Nutrient.VITAMIN_C, avg, rec, "mg"));
+        micros.add(detail("Vitamin D", Nutrient.VITAMIN_D, avg, rec, "mcg"));
+        micros.add(detail("Vitamin E", Nutrient.VITAMIN_E, avg, rec, "mg"));
+        micros.add(detail("Vitamin K", Nutrient.VITAMIN_K, avg, rec, "mcg"));
+        micros.add(detail("Vitamin B12", Nutrient.VITAMIN_B12, avg, rec, "mcg"));
+        micros.add(detail("Calcium", Nutrient.CALCIUM, avg, rec, "mg"));
+        micros.add(detail("Iron", Nutrient.IRON, avg, rec, "mg"));
+        micros.add(detail("Magnesium", Nutrient.MAGNESIUM, avg, rec, "mg"));
+        micros.add(detail("Zinc", Nutrient.ZINC, avg, rec, "mg"));
+        micros.add(detail("Potassium", Nutrient.POTASSIUM, avg, rec, "mg"));
         dto.setMicronutrients(micros);
 
         // Overall score = average percentage of all nutrients
@@ -172,39 +139,83 @@ public class NutrientAnalysisService {
         double avgScore = all.stream().mapToDouble(NutrientDetail::getPercentage).average().orElse(0);
         dto.setOverallScore(Math.min(avgScore, 100));
 
-        // Generate recommendations for deficient nutrients
-        List<Recommendation> recs = new ArrayList<>();
-        addRecommendationIfLow(recs, "Protein", protein / d, recProtein,
-                Arrays.asList("Chicken Breast", "Eggs", "Salmon", "Almonds"));
-        addRecommendationIfLow(recs, "Fiber", fiber / d, recFiber,
-                Arrays.asList("Broccoli", "Brown Rice", "Apple", "Spinach"));
-        addRecommendationIfLow(recs, "Vitamin C", vitC / d, recVitC,
-                Arrays.asList("Broccoli", "Spinach", "Banana"));
-        addRecommendationIfLow(recs, "Vitamin D", vitD / d, recVitD,
-                Arrays.asList("Salmon", "Egg", "Milk"));
-        addRecommendationIfLow(recs, "Calcium", calcium / d, recCalcium,
-                Arrays.asList("Milk", "Broccoli", "Almonds"));
-        addRecommendationIfLow(recs, "Iron", iron / d, recIron,
-                Arrays.asList("Spinach", "Chicken Breast", "Brown Rice"));
-        addRecommendationIfLow(recs, "Potassium", potassium / d, recPotassium,
-                Arrays.asList("Banana", "Spinach", "Milk"));
-        addRecommendationIfLow(recs, "Vitamin B12", vitB12 / d, recVitB12,
-                Arrays.asList("Salmon", "Egg", "Milk"));
-        dto.setRecommendations(recs);
+        // Generate recommendations for deficient nutrients, with catalog foods that fill the gap best
+        dto.setRecommendations(recommendations(avg, rec));
 
         return dto;
     }
 
-    private void addRecommendationIfLow(List<Recommendation> recs,
-                                         String nutrient, double consumed, double recommended,
-                                         List<String> foodSuggestions) {
-        double pct = recommended > 0 ? (consumed / recommended) * 100 : 100;
+    /**
+     * One recommendation per tracked nutrient below 80% of its target,
+     * each with the foods that best close the user's overall gap while
+     * supplying that nutrient.
+     */
+    private List<Recommendation> recommendations(NutrientVector avg, NutrientVector rec) {
+        Map<Nutrient, Double> lowPercentages = new LinkedHashMap<>();
+        for (Map.Entry<Nutrient, String> e : RECOMMENDED_NUTRIENTS.entrySet()) {
+            Nutrient nutrient = e.getKey();
+            double recommended = rec.get(nutrient);
+            double pct = recommended > 0 ? (avg.get(nutrient) / recommended) * 100 : 100;
+            if (pct < 80) lowPercentages.put(nutrient, pct);
+        }
+
+        Map<Nutrient, List<String>> foods = recommendationEngine.recommend(
+                avg, rec, lowPercentages.keySet(), SUGGESTIONS_PER_NUTRIENT);
+        List<Recommendation> recs = new ArrayList<>();
+        for (Map.Entry<Nutrient, Double> e : lowPercentages.entrySet()) {
+            addRecommendation(recs, RECOMMENDED_NUTRIENTS.get(e.getKey()), e.getValue(),
+                    foods.getOrDefault(e.getKey(), List.of()));
+        }
+        return recs;
+    }
+
+    /**
+     * BMI-adjusted Recommended Daily Values.
+     * Starts from approximate adult values and adjusts them for the user's BMI profile.
+     */
+    NutrientVector recommendedDailyValues(User user) {
+        NutrientVector rec = NutrientVector.wrap(BASE_RDA.clone());
+
+        if (user != null && user.getBmi() != null) {
+            Double bmi = user.getBmi();
+            if (bmi < 18.5) {
+                // Underweight: boost calories & protein to encourage healthy weight gain
+                rec.scale(Nutrient.PROTEIN, 1.3);        // +30% protein
+                rec.scale(Nutrient.CARBOHYDRATES, 1.2);  // +20% carbs
+                rec.scale(Nutrient.FAT, 1.1);            // +10% fat
+                rec.scale(Nutrient.CALCIUM, 1.15);       // bone support
+                rec.scale(Nutrient.IRON, 1.1);
+            } else if (bmi >= 25 && bmi < 30) {
+                // Overweight: moderate reduction in calorie-dense macros
+                rec.scale(Nutrient.CARBOHYDRATES, 0.85); // -15% carbs
+                rec.scale(Nutrient.FAT, 0.85);           // -15% fat
+                rec.scale(Nutrient.PROTEIN, 1.1);        // slightly more protein for satiety
+                rec.scale(Nutrient.FIBER, 1.15);         // +15% fiber for fullness
+            } else if (bmi >= 30) {
+                // Obese: more significant reduction, higher protein & fiber
+                rec.scale(Nutrient.CARBOHYDRATES, 0.75); // -25% carbs
+                rec.scale(Nutrient.FAT, 0.75);           // -25% fat
+                rec.scale(Nutrient.PROTEIN, 1.2);        // +20% protein for satiety & muscle preservation
+                rec.scale(Nutrient.FIBER, 1.25);         // +25% fiber
+                rec.scale(Nutrient.VITAMIN_D, 1.3);      // obese individuals often low in Vit D
+            }
+            // Normal weight (18.5-25): keep defaults
+        }
+        return rec;
+    }
+
+    private NutrientDetail detail(String name, Nutrient nutrient, NutrientVector avg, NutrientVector rec, String unit) {
+        return new NutrientDetail(name, avg.get(nutrient), rec.get(nutrient), unit);
+    }
+
+    private void addRecommendation(List<Recommendation> recs, String nutrient, double pct,
+                                   List<String> foodSuggestions) {
         if (pct < 50) {
             recs.add(new Recommendation(nutrient,
                     String.format("Your %s intake is very low (%.0f%% of daily goal). Consider adding more %s-rich foods.",
                             nutrient, pct, nutrient.toLowerCase()),
                     "HIGH", foodSuggestions));
-        } else if (pct < 80) {
+        } else {
             recs.add(new Recommendation(nutrient,
                     String.format("Your %s intake is below target (%.0f%%). Try adding a serving of recommended foods.",
                             nutrient, pct),
@@ -0,0 +1,124 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nutrition.dietbalancetracker.model.DailyNutrientRollup;
+import com.nutrition.dietbalancetracker.model.NutrientVector;
+import com.nutrition.dietbalancetracker.repository.DailyNutrientRollupRepository;
+
+/**
+ * ROLLUP PREFIX INDEX
+ * ===================
+ * Per-user running totals over the daily rollups, so the nutrients of any
+ * date range are one subtraction: sum(from..to) = cum[to] - cum[before from].
+ *
+ * For each user we keep the days that have a rollup row, in order, and after
+ * each one the cumulative nutrient vector plus two extra lanes: cumulative
+ * meal count and cumulative number of days with entries. A range is found
+ * with two binary searches. Only days with rows take space, so one entry
+ * logged far from the rest costs one row, not one per day in between.
+ *
+ * A user's index is built from their rollup rows on first use and dropped
+ * (after commit) whenever their rollups change; the next query rebuilds it.
+ * Building goes through the cache's atomic load, and a drop waits for a
+ * load in progress, so an index can never miss a committed change or count
+ * it twice. Indexes are bounded by total size and dropped
+ * least-recently-used first.
+ */
+@Component
+public class RollupPrefixIndex {
+
+    private static final int MEALS = NutrientVector.SIZE;
+    private static final int ACTIVE_DAYS = NutrientVector.SIZE + 1;
+    private static final int LANES = NutrientVector.SIZE + 2;
+
+    /** Summed nutrients, meal count and number of days with entries for a date range. */
+    public record RangeTotals(NutrientVector nutrients, int mealCount, int activeDays) { }
+
+    private final DailyNutrientRollupRepository rollupRepository;
+
+    private final Cache<Long, UserPrefix> indexes;
+
+    public RollupPrefixIndex(DailyNutrientRollupRepository rollupRepository,
+                             @Value("${analysis.prefix-index.max-values:8000000}") long maxValues) {
+        this.rollupRepository = rollupRepository;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxValues)
+                .weigher((Long userId, UserPrefix p) -> p.weight())
+                .build();
+    }
+
+    /** Totals for a user between two dates (inclusive). */
+    public RangeTotals sum(Long userId, LocalDate from, LocalDate to) {
+        return indexes.get(userId, this::build).sum(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /** Forget a user's index (their rollups changed, were rebuilt or deleted). */
+    public void evict(Long userId) {
+        AfterCommit.run(() -> indexes.invalidate(userId));
+    }
+
+    /** Forget every index. */
+    public void evictAll() {
+        AfterCommit.run(indexes::invalidateAll);
+    }
+
+    private UserPrefix build(Long userId) {
+        List<DailyNutrientRollup> rows = rollupRepository.findByUserIdOrderByRollupDateAsc(userId);
+        long[] days = new long[rows.size()];
+        double[] cum = new double[(rows.size() + 1) * LANES];
+        for (int i = 0; i < rows.size(); i++) {
+            DailyNutrientRollup day = rows.get(i);
+            days[i] = day.getRollupDate().toEpochDay();
+            int prev = i * LANES;
+            int base = prev + LANES;
+            double[] totals = day.getNutrientTotals();
+            for (int k = 0; k < NutrientVector.SIZE; k++) {
+                cum[base + k] = cum[prev + k] + totals[k];
+            }
+            cum[base + MEALS] = cum[prev + MEALS] + day.getMealCount();
+            cum[base + ACTIVE_DAYS] = cum[prev + ACTIVE_DAYS] + (day.getMealCount() > 0 ? 1 : 0);
+        }
+        return new UserPrefix(days, cum);
+    }
+
+    /**
+     * Cumulative rows for one user. days holds the epoch days that have a
+     * rollup row, ascending; row i of cum holds the totals of days[0..i),
+     * so row 0 is always zero. Never changed once built.
+     */
+    private record UserPrefix(long[] days, double[] cum) {
+
+        RangeTotals sum(long fromDay, long toDay) {
+            int lo = firstAtOrAfter(fromDay);
+            int hi = firstAtOrAfter(toDay + 1);
+            NutrientVector nutrients = new NutrientVector();
+            if (hi <= lo) return new RangeTotals(nutrients, 0, 0);
+
+            double[] v = nutrients.values();
+            for (int k = 0; k < NutrientVector.SIZE; k++) {
+                v[k] = cum[hi * LANES + k] - cum[lo * LANES + k];
+            }
+            int meals = (int) Math.round(cum[hi * LANES + MEALS] - cum[lo * LANES + MEALS]);
+            int active = (int) Math.round(cum[hi * LANES + ACTIVE_DAYS] - cum[lo * LANES + ACTIVE_DAYS]);
+            return new RangeTotals(nutrients, meals, active);
+        }
+
+        /** Number of days before the given day, i.e. the row where it starts. */
+        private int firstAtOrAfter(long day) {
+            int i = Arrays.binarySearch(days, day);
+            return i >= 0 ? i : -i - 1;
+        }
+
+        int weight() {
+            return cum.length + days.length;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nutrition.dietbalancetracker.dto.EntryTupleDTO;
+import com.nutrition.dietbalancetracker.repository.DietaryEntryRepository;
+
+/**
+ * USER FOOD AFFINITY
+ * ==================
+ * A small per-user sketch of which foods someone logs often and recently,
+ * used to put their usual foods first in search and autocomplete.
+ *
+ * Each user has a fixed number of slots (food id + score). Logging a food
+ * adds 1 to its score; scores halve every half-life, so last week's
+ * breakfast outranks something eaten a lot two years ago. When all slots
+ * are taken, a new food replaces the lowest-scoring one and starts from
+ * that score plus one (the "space-saving" rule), so a food that becomes a
+ * habit climbs in quickly however long the history is.
+ *
+ * A user's sketch is seeded from their last SEED_DAYS of entries on first
+ * use, then updated as meals are logged (after commit). Sketches are held
+ * for a bounded number of users and dropped least-recently-used first.
+ */
+@Component
+public class UserFoodAffinity {
+
+    public static final int SLOTS = 32;
+    private static final int SEED_DAYS = 90;
+
+    private final DietaryEntryRepository dietaryEntryRepository;
+    private final Cache<Long, Sketch> sketches;
+    private final double halfLifeSeconds;
+
+    public UserFoodAffinity(DietaryEntryRepository dietaryEntryRepository,
+                            @Value("${food.affinity.max-users:10000}") long maxUsers,
+                            @Value("${food.affinity.half-life-days:14}") double halfLifeDays) {
+        this.dietaryEntryRepository = dietaryEntryRepository;
+        this.halfLifeSeconds = halfLifeDays * 86_400;
+        this.sketches = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofDays(1))
+                .build();
+    }
+
+    /** Relative affinity of a user for the foods in their sketch (higher = more usual). */
+    public Map<Long, Double> scores(Long userId) {
+        if (userId == null) return Map.of();
+        return sketches.get(userId, this::load).snapshot();
+    }
+
+    /** Count a newly logged meal (applied after commit, only if the user's sketch is loaded). */
+    public void recordLogged(Long userId, Long foodItemId, LocalDateTime consumedAt) {
+        if (userId == null || foodItemId == null) return;
+        double time = seconds(consumedAt);
+        AfterCommit.run(() -> sketches.asMap().computeIfPresent(userId, (id, sketch) -> {
+            sketch.add(foodItemId, time);
+            return sketch;
+        }));
+    }
+
+    /** Forget a user's sketch (e.g. their account was deleted). */
+    public void evict(Long userId) {
+        sketches.invalidate(userId);
+    }
+
+    private Sketch load(Long userId) {
+        Sketch sketch = new Sketch(halfLifeSeconds);
+        LocalDateTime end = LocalDateTime.now().plusDays(1);
+        List<EntryTupleDTO> entries = dietaryEntryRepository.findTuples(userId, end.minusDays(SEED_DAYS + 1), end);
+        // Oldest first, so decay is applied in the order things happened
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            EntryTupleDTO e = entries.get(i);
+            sketch.add(e.getFoodItemId(), seconds(e.getConsumedAt()));
+        }
+        return sketch;
+    }
+
+    private static double seconds(LocalDateTime time) {
+        return (time != null ? time : LocalDateTime.now()).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /** Fixed-size table of decayed per-food scores for one user. */
+    private static final class Sketch {
+
+        private final double halfLifeSeconds;
+        private final long[] foodIds = new long[SLOTS];
+        private final double[] scores = new double[SLOTS];
+        private int size;
+        // All scores are as of this time; they are decayed together when it moves forward
+        private double asOf = Double.NEGATIVE_INFINITY;
+
+        Sketch(double halfLifeSeconds) {
+            this.halfLifeSeconds = halfLifeSeconds;
+        }
+
+        synchronized void add(long foodId, double time) {
+            double weight = 1.0;
+            if (time > asOf) {
+                if (asOf != Double.NEGATIVE_INFINITY) {
+                    double decay = Math.pow(0.5, (time - asOf) / halfLifeSeconds);
+                    for (int i = 0; i < size; i++) scores[i] *= decay;
+                }
+                asOf = time;
+            } else {
+                // A backdated entry counts for what it would have decayed to by now
+                weight = Math.pow(0.5, (asOf - time) / halfLifeSeconds);
+            }
+
+            int slot = -1;
+            int lowest = 0;
+            for (int i = 0; i < size; i++) {
+                if (foodIds[i] == foodId) {
+                    slot = i;
+                    break;
+                }
+                if (scores[i] < scores[lowest]) lowest = i;
+            }
+            if (slot >= 0) {
+                scores[slot] += weight;
+            } else if (size < SLOTS) {
+                foodIds[size] = foodId;
+                scores[size++] = weight;
+            } else {
+                foodIds[lowest] = foodId;
+                scores[lowest] += weight;
+            }
+        }
+
+        synchronized Map<Long, Double> snapshot() {
+            Map<Long, Double> result = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                result.put(foodIds[i], scores[i]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+-- ============================================
+-- V1: BASELINE SCHEMA
+-- ============================================
+-- The schema exactly as Hibernate (ddl-auto=update) created it before
+-- migrations took over. Databases that already have these tables are
+-- baselined at version 1 (spring.flyway.baseline-on-migrate), so this only
+-- runs on an empty database - which is why everything added since lives
+-- in V2 onwards, never here.
+
+create table allergies (
+    health_data_id bigint not null,
+    allergy varchar(100)
+) engine=InnoDB;
+
+create table chat_messages (
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    role varchar(20) not null,
+    content TEXT not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table deficiency_thresholds (
+    daily_requirement float(53) not null,
+    is_critical bit not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6) not null,
+    updated_by_admin_id bigint,
+    age_group enum ('AGE_1_3','AGE_9_13','AGE_14_18') not null,
+    nutrient enum ('CALORIES','PROTEIN','CARBOHYDRATES','FAT','FIBER','VITAMIN_A','VITAMIN_C','VITAMIN_D','VITAMIN_E','VITAMIN_K','VITAMIN_B12','CALCIUM','IRON','MAGNESIUM','ZINC','POTASSIUM') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table dietary_entries (
+    portion_size float(53) not null,
+    consumed_at datetime(6) not null,
+    created_at datetime(6) not null,
+    food_item_id bigint not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    meal_type enum ('BREAKFAST','LUNCH','DINNER','SNACK') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table dietary_recommendations (
+    is_acknowledged bit not null,
+    relevance_score float(53) not null,
+    suggested_portion_size float(53) not null,
+    valid_until date not null,
+    created_at datetime(6) not null,
+    food_item_id bigint not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    rationale varchar(500) not null,
+    target_nutrient enum ('CALORIES','PROTEIN','CARBOHYDRATES','FAT','FIBER','VITAMIN_A','VITAMIN_C','VITAMIN_D','VITAMIN_E','VITAMIN_K','VITAMIN_B12','CALCIUM','IRON','MAGNESIUM','ZINC','POTASSIUM') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table dietary_restrictions (
+    health_data_id bigint not null,
+    restriction enum ('VEGETARIAN','VEGAN','GLUTEN_FREE','LACTOSE_FREE','NUT_ALLERGY','HALAL','KOSHER','LOW_SODIUM','DIABETIC_FRIENDLY')
+) engine=InnoDB;
+
+create table food_items (
+    is_active bit not null,
+    is_custom bit not null,
+    version integer not null,
+    created_at datetime(6) not null,
+    created_by_user_id bigint,
+    id bigint not null auto_increment,
+    name varchar(100) not null,
+    description varchar(500),
+    category enum ('FRUIT','VEGETABLE','GRAIN','PROTEIN','DAIRY','LEGUME','NUT_SEED','BEVERAGE','SNACK','DESSERT','OTHER') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table health_data (
+    height float(53) not null,
+    weight float(53) not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6) not null,
+    user_id bigint not null,
+    activity_level enum ('SEDENTARY','LIGHT','MODERATE','ACTIVE','VERY_ACTIVE') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table interventions (
+    consecutive_days integer not null,
+    email_sent bit not null,
+    is_acknowledged bit not null,
+    acknowledged_at datetime(6),
+    created_at datetime(6) not null,
+    deficiency_id bigint not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    message varchar(1000) not null,
+    level enum ('NORMAL','ELEVATED','CRITICAL') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table nutrient_analyses (
+    end_date date not null,
+    start_date date not null,
+    total_calcium float(53) not null,
+    total_calories float(53) not null,
+    total_carbohydrates float(53) not null,
+    total_fat float(53) not null,
+    total_fiber float(53) not null,
+    total_iron float(53) not null,
+    total_protein float(53) not null,
+    total_vitamina float(53) not null,
+    total_vitaminc float(53) not null,
+    total_vitamind float(53) not null,
+    calculated_at datetime(6) not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table nutrient_deficiencies (
+    actual_intake float(53) not null,
+    deficiency_percentage float(53) not null,
+    recommended_intake float(53) not null,
+    analysis_id bigint not null,
+    detected_at datetime(6) not null,
+    id bigint not null auto_increment,
+    level enum ('MILD','MODERATE','SEVERE') not null,
+    nutrient enum ('CALORIES','PROTEIN','CARBOHYDRATES','FAT','FIBER','VITAMIN_A','VITAMIN_C','VITAMIN_D','VITAMIN_E','VITAMIN_K','VITAMIN_B12','CALCIUM','IRON','MAGNESIUM','ZINC','POTASSIUM') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table nutrient_profiles (
+    calcium float(53) not null,
+    calories float(53) not null,
+    carbohydrates float(53) not null,
+    fat float(53) not null,
+    fiber float(53) not null,
+    iron float(53) not null,
+    magnesium float(53) not null,
+    potassium float(53) not null,
+    protein float(53) not null,
+    serving_size float(53) not null,
+    vitamina float(53) not null,
+    vitaminb12 float(53) not null,
+    vitaminc float(53) not null,
+    vitamind float(53) not null,
+    vitamine float(53) not null,
+    vitamink float(53) not null,
+    zinc float(53) not null,
+    food_item_id bigint not null,
+    id bigint not null auto_increment,
+    primary key (id)
+) engine=InnoDB;
+
+create table nutrition_goals (
+    calorie_goal integer not null,
+    carbs_goal integer not null,
+    fat_goal integer not null,
+    fiber_goal integer not null,
+    protein_goal integer not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6) not null,
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    age integer not null,
+    height_cm float(53),
+    weight_kg float(53),
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6) not null,
+    username varchar(50) not null,
+    email varchar(100) not null,
+    password_hash varchar(255) not null,
+    role enum ('USER','ADMIN') not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table health_data 
+   add constraint UK_ery8mmwi0ayomcfongldw32ah unique (user_id);
+
+alter table nutrient_profiles 
+   add constraint UK_stvrw72u96tqnyq2woftut3j7 unique (food_item_id);
+
+alter table nutrition_goals 
+   add constraint UK_t8jv74a4urytgsbxkuf76kcrm unique (user_id);
+
+alter table users 
+   add constraint UK_r43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table users 
+   add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table allergies 
+   add constraint FK227lu8o9lnbcr1hkrl2tj9oi0 
+   foreign key (health_data_id) 
+   references health_data (id);
+
+alter table deficiency_thresholds 
+   add constraint FKg851382xy13vt79yupd3sfakb 
+   foreign key (updated_by_admin_id) 
+   references users (id);
+
+alter table dietary_entries 
+   add constraint FK9arko1gmvmvlpw3khx4wmcvrk 
+   foreign key (food_item_id) 
+   references food_items (id);
+
+alter table dietary_entries 
+   add constraint FKpb4pvd72gcem9t1uhesn7xk08 
+   foreign key (user_id) 
+   references users (id);
+
+alter table dietary_recommendations 
+   add constraint FK4gw502bbjb0pxfplay9t7x2ug 
+   foreign key (food_item_id) 
+   references food_items (id);
+
+alter table dietary_recommendations 
+   add constraint FKlguhcn3h3afpy3sar18wc3mj5 
+   foreign key (user_id) 
+   references users (id);
+
+alter table dietary_restrictions 
+   add constraint FKhapg0yvi3vd3vq54oqw1ivsc9 
+   foreign key (health_data_id) 
+   references health_data (id);
+
+alter table food_items 
+   add constraint FK61cgvtisvn15rhgwvqv6idkau 
+   foreign key (created_by_user_id) 
+   references users (id);
+
+alter table health_data 
+   add constraint FKnlyro3dp3j4310jfykdcgdg89 
+   foreign key (user_id) 
+   references users (id);
+
+alter table interventions 
+   add constraint FKb38xc55w199i3tdy8mf2j6dqu 
+   foreign key (deficiency_id) 
+   references nutrient_deficiencies (id);
+
+alter table interventions 
+   add constraint FKclng93gtjt2jjraklhljq9aed 
+   foreign key (user_id) 
+   references users (id);
+
+alter table nutrient_analyses 
+   add constraint FKgnqr73v0igniajjwgk43rp1qw 
+   foreign key (user_id) 
+   references users (id);
+
+alter table nutrient_deficiencies 
+   add constraint FKgxh7qjhmkchid0evxx9gckm2i 
+   foreign key (analysis_id) 
+   references nutrient_analyses (id);
+
+alter table nutrient_profiles 
+   add constraint FKotlfa0ea68t3rlifh9bcqrxl6 
+   foreign key (food_item_id) 
+   references food_items (id);
+
+alter table nutrition_goals 
+   add constraint FKakl1pdv02hvs9g1tknnqc1i51 
+   foreign key (user_id) 
+   references users (id);
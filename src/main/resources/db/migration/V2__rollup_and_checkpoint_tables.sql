@@ -0,0 +1,32 @@
+-- ============================================
+-- V2: ROLLUP AND CHECKPOINT TABLES
+-- ============================================
+-- daily_nutrient_rollups: one row per user per day with that day's summed
+-- nutrients (DailyRollupService). Filled from dietary_entries on the first
+-- start after this migration (DailyRollupService.backfillIfEmpty).
+create table daily_nutrient_rollups (
+    meal_count integer not null,
+    rollup_date date not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6) not null,
+    user_id bigint not null,
+    meal_type_calories VARBINARY(32) not null,
+    meal_type_counts VARBINARY(32) not null,
+    nutrient_totals VARBINARY(128) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table daily_nutrient_rollups
+   add constraint uk_rollup_user_date unique (user_id, rollup_date);
+
+-- batch_job_checkpoints: how far each batch job got, so it can resume
+create table batch_job_checkpoints (
+    run_date date not null,
+    last_user_id bigint not null,
+    started_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    users_processed bigint not null,
+    job_name varchar(50) not null,
+    status enum ('RUNNING','COMPLETED') not null,
+    primary key (job_name)
+) engine=InnoDB;
@@ -0,0 +1,21 @@
+-- ============================================
+-- V3: ACCESS-PATH INDEXES
+-- ============================================
+-- Composite indexes matching the hot repository finders, so they read a
+-- narrow index range in order instead of scanning and sorting the table.
+
+-- dietary_entries: every per-user finder filters on user_id and a
+-- consumed_at range and orders by consumed_at (then id for keyset paging).
+-- The extra columns cover findTuples and the per-day/per-food sums, which
+-- then never read the table rows.
+create index idx_entry_user_consumed_cover
+    on dietary_entries (user_id, consumed_at, id, food_item_id, portion_size, meal_type);
+
+-- chat_messages: findByUserIdOrderByCreatedAtAsc and deleteByUserId
+create index idx_chat_user_created
+    on chat_messages (user_id, created_at, id);
+
+-- nutrient_analyses: the latest snapshot per user and the batch job's
+-- per-window deletes
+create index idx_analysis_user_end
+    on nutrient_analyses (user_id, end_date);
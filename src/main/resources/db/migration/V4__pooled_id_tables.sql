@@ -0,0 +1,48 @@
+-- ============================================
+-- V4: POOLED ID TABLES
+-- ============================================
+-- dietary_entries, chat_messages, food_items, nutrient_profiles,
+-- nutrient_analyses and nutrient_deficiencies get their ids from
+-- PooledSequenceGenerator instead of AUTO_INCREMENT, so Hibernate can batch
+-- their inserts. Each table below holds the next unused id for
+-- its entity; the generator reserves a block (app.id.allocation_size) at a
+-- time by bumping it.
+--
+-- The id columns keep AUTO_INCREMENT: it is unused once the ids come from
+-- Hibernate, and MySQL won't alter a column that foreign keys reference.
+
+create table dietary_entries_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into dietary_entries_seq select coalesce(max(id), 0) + 1 from dietary_entries;
+
+create table chat_messages_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into chat_messages_seq select coalesce(max(id), 0) + 1 from chat_messages;
+
+create table food_items_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into food_items_seq select coalesce(max(id), 0) + 1 from food_items;
+
+create table nutrient_profiles_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into nutrient_profiles_seq select coalesce(max(id), 0) + 1 from nutrient_profiles;
+
+create table nutrient_analyses_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into nutrient_analyses_seq select coalesce(max(id), 0) + 1 from nutrient_analyses;
+
+create table nutrient_deficiencies_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into nutrient_deficiencies_seq select coalesce(max(id), 0) + 1 from nutrient_deficiencies;
@@ -0,0 +1,30 @@
+-- ============================================
+-- V5: DIETARY ENTRY ARCHIVE
+-- ============================================
+-- Cold storage for dietary entries older than the archive horizon
+-- (entry.archive.horizon-days). EntryArchiveService moves old rows here
+-- every night, so dietary_entries, its indexes and its share of the
+-- buffer pool only hold recent history. Their per-day nutrient sums stay
+-- in daily_nutrient_rollups, so long-range analysis is unaffected.
+--
+-- Range-partitioning dietary_entries by month isn't an option: InnoDB
+-- doesn't allow foreign keys on partitioned tables, and the partition key
+-- would have to be part of the primary key.
+--
+-- Same columns as dietary_entries plus when the row was archived. There are
+-- no foreign keys, so archived rows don't block food or account clean-up.
+-- Pages are compressed since the table is written once and rarely read.
+create table dietary_entries_archive (
+    id bigint not null,
+    user_id bigint not null,
+    food_item_id bigint not null,
+    portion_size float(53) not null,
+    meal_type enum ('BREAKFAST','LUNCH','DINNER','SNACK') not null,
+    consumed_at datetime(6) not null,
+    created_at datetime(6) not null,
+    archived_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB row_format=COMPRESSED;
+
+create index idx_archive_user_consumed
+    on dietary_entries_archive (user_id, consumed_at);
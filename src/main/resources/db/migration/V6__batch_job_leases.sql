@@ -0,0 +1,11 @@
+-- ============================================
+-- V6: BATCH JOB LEASES
+-- ============================================
+-- One row per batch job naming the node currently running it and when that
+-- lease expires (see BatchJobLeaseService). Rows are created on first use.
+create table batch_job_leases (
+    job_name varchar(50) not null,
+    owner varchar(100),
+    lease_until datetime(6),
+    primary key (job_name)
+) engine=InnoDB;
@@ -0,0 +1,15 @@
+-- ============================================
+-- V7: NUTRIENT PROFILES SHARE THEIR FOOD'S ID
+-- ============================================
+-- NutrientProfile maps its food with @MapsId, so food_item_id becomes the
+-- primary key and the separate id column (and its pooled id table) goes.
+-- Every food has at most one profile already (UK on food_item_id), so the
+-- existing rows keep their food link unchanged.
+alter table nutrient_profiles drop column id;
+
+alter table nutrient_profiles add primary key (food_item_id);
+
+-- The primary key now covers food_item_id (and backs its foreign key)
+alter table nutrient_profiles drop constraint UK_stvrw72u96tqnyq2woftut3j7;
+
+drop table nutrient_profiles_seq;
@@ -0,0 +1,169 @@
+package com.nutrition.dietbalancetracker.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import com.nutrition.dietbalancetracker.model.ActivityLevel;
+import com.nutrition.dietbalancetracker.model.DietaryEntry;
+import com.nutrition.dietbalancetracker.model.FoodCategory;
+import com.nutrition.dietbalancetracker.model.FoodItem;
+import com.nutrition.dietbalancetracker.model.HealthData;
+import com.nutrition.dietbalancetracker.model.MealType;
+import com.nutrition.dietbalancetracker.model.NutrientProfile;
+import com.nutrition.dietbalancetracker.model.User;
+import com.nutrition.dietbalancetracker.model.UserRole;
+
+/**
+ * DIETARY ENTRY REPOSITORY TEST
+ * =============================
+ * Checks that the "WithFood" finders load a page of history - entries,
+ * their user and health data, foods and nutrient profiles - in a single
+ * statement, with the second-level cache off (the cold-cache case).
+ *
+ * Runs the real Flyway migrations on H2 in MySQL mode.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:entries;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,YEAR,MONTH,DAY",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class DietaryEntryRepositoryTest {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int FOODS = 10;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private DietaryEntryRepository dietaryEntryRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("history");
+        user.setEmail("history@example.com");
+        user.setPasswordHash("x");
+        user.setRole(UserRole.USER);
+        user.setAge(30);
+        em.persist(user);
+
+        HealthData health = new HealthData();
+        health.setUser(user);
+        health.setWeight(70.0);
+        health.setHeight(175.0);
+        health.setActivityLevel(ActivityLevel.SEDENTARY);
+        em.persist(health);
+
+        List<FoodItem> foods = new ArrayList<>();
+        for (int i = 0; i < FOODS; i++) {
+            FoodItem food = new FoodItem();
+            food.setName("Food " + i);
+            food.setCategory(FoodCategory.GRAIN);
+            food.setNutrientProfile(profile(100.0 + i));
+            em.persist(food);
+            foods.add(food);
+        }
+
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        for (int i = 0; i < PAGE_SIZE + 10; i++) {
+            DietaryEntry entry = new DietaryEntry();
+            entry.setUser(user);
+            entry.setFoodItem(foods.get(i % FOODS));
+            entry.setPortionSize(1.0);
+            entry.setMealType(MealType.LUNCH);
+            entry.setConsumedAt(start.plusHours(i));
+            em.persist(entry);
+        }
+        em.flush();
+        em.clear();
+        userId = user.getId();
+    }
+
+    @Test
+    void historyPageLoadsEntriesFoodsAndProfilesInOneStatement() {
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        List<DietaryEntry> page = dietaryEntryRepository.findWithFoodByUserIdOrderByConsumedAtDescIdDesc(
+                userId, PageRequest.of(0, PAGE_SIZE));
+        double calories = 0;
+        for (DietaryEntry entry : page) {
+            calories += entry.getFoodItem().getNutrientProfile().getCalories() * entry.getPortionSize();
+            assertThat(entry.getUser().getHealthData()).isNotNull();
+        }
+
+        assertThat(page).hasSize(PAGE_SIZE);
+        assertThat(calories).isPositive();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void nextPageIsAlsoOneStatement() {
+        List<DietaryEntry> first = dietaryEntryRepository.findWithFoodByUserIdOrderByConsumedAtDescIdDesc(
+                userId, PageRequest.of(0, PAGE_SIZE));
+        DietaryEntry last = first.get(first.size() - 1);
+        em.clear();
+
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        List<DietaryEntry> next = dietaryEntryRepository.findPageBefore(
+                userId, last.getConsumedAt(), last.getId(), PageRequest.of(0, PAGE_SIZE));
+        for (DietaryEntry entry : next) {
+            assertThat(entry.getFoodItem().getNutrientProfile().getCalories()).isPositive();
+        }
+
+        assertThat(next).hasSize(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private Statistics statistics() {
+        return em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static NutrientProfile profile(double calories) {
+        NutrientProfile profile = new NutrientProfile();
+        profile.setServingSize(100.0);
+        profile.setCalories(calories);
+        profile.setProtein(5.0);
+        profile.setCarbohydrates(20.0);
+        profile.setFat(1.0);
+        profile.setFiber(2.0);
+        profile.setVitaminA(0.0);
+        profile.setVitaminC(0.0);
+        profile.setVitaminD(0.0);
+        profile.setVitaminE(0.0);
+        profile.setVitaminK(0.0);
+        profile.setVitaminB12(0.0);
+        profile.setCalcium(10.0);
+        profile.setIron(1.0);
+        profile.setMagnesium(5.0);
+        profile.setZinc(0.5);
+        profile.setPotassium(50.0);
+        return profile;
+    }
+}
@@ -0,0 +1,225 @@
+package com.nutrition.dietbalancetracker.service;
+
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nutrition.dietbalancetracker.dto.ChartDataDTO;
+import com.nutrition.dietbalancetracker.dto.ChartDataDTO.DayData;
+import com.nutrition.dietbalancetracker.dto.ChartDataDTO.MacroSplit;
+import com.nutrition.dietbalancetracker.dto.ChartDataDTO.MealTypeBreakdown;
+import com.nutrition.dietbalancetracker.dto.ChartDataDTO.RadarPoint;
+import com.nutrition.dietbalancetracker.dto.ChartDataDTO.TopFood;
+import com.nutrition.dietbalancetracker.dto.NutrientTotalsDTO;
+import com.nutrition.dietbalancetracker.model.DailyNutrientRollup;
+import com.nutrition.dietbalancetracker.model.MealType;
+import com.nutrition.dietbalancetracker.model.Nutrient;
+import com.nutrition.dietbalancetracker.model.NutrientVector;
+
+/**
+ * CHART DATA BENCHMARK
+ * ====================
+ * Compares building the chart sections from loaded rollup rows with the
+ * old five-pass builder (per-day vectors, a totals pass, a meal-type pass,
+ * then the trend and radar) against ChartDataService.assemble, which fills
+ * everything but top foods in one FusedChartPass.
+ *
+ * Both start from the same in-memory rows, so only the Java side is timed;
+ * the rollup and per-food queries are the same for both.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args=ChartDataBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChartDataBenchmark {
+
+    @Param({"30", "90"})
+    int days;
+
+    private LocalDate from;
+    private List<DailyNutrientRollup> rollups;
+    private List<NutrientTotalsDTO> foods;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        from = today.minusDays(days - 1);
+
+        // Most days have a row; a few are skipped like days nothing was logged
+        rollups = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            if (random.nextInt(10) == 0) continue;
+            DailyNutrientRollup day = new DailyNutrientRollup(1L, from.plusDays(i));
+            for (MealType mealType : MealType.values()) {
+                NutrientVector meal = new NutrientVector();
+                for (Nutrient nutrient : Nutrient.values()) {
+                    meal.set(nutrient, random.nextDouble() * 100);
+                }
+                day.apply(meal, mealType, 1 + random.nextInt(2));
+            }
+            rollups.add(day);
+        }
+
+        foods = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            foods.add(new NutrientTotalsDTO(id, "Food " + id, 20 - id,
+                    300.0, 10.0, 40.0, 5.0, 3.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0));
+        }
+    }
+
+    @Benchmark
+    public ChartDataDTO fivePass() {
+        return FivePassChartBuilder.build(rollups, foods, from, days);
+    }
+
+    @Benchmark
+    public ChartDataDTO fusedPass() {
+        return ChartDataService.assemble(rollups, foods, from, days);
+    }
+
+    /** ChartDataService's chart building before FusedChartPass, kept as the baseline. */
+    static final class FivePassChartBuilder {
+
+        private static final NutrientVector RDA = new NutrientVector()
+                .set(Nutrient.PROTEIN,       50)
+                .set(Nutrient.CARBOHYDRATES, 300)
+                .set(Nutrient.FAT,           65)
+                .set(Nutrient.FIBER,         25)
+                .set(Nutrient.VITAMIN_A,     900)
+                .set(Nutrient.VITAMIN_C,     90)
+                .set(Nutrient.VITAMIN_D,     20)
+                .set(Nutrient.CALCIUM,       1000)
+                .set(Nutrient.IRON,          18)
+                .set(Nutrient.POTASSIUM,     2600)
+                .set(Nutrient.ZINC,          11)
+                .set(Nutrient.MAGNESIUM,     420);
+
+        static ChartDataDTO build(List<DailyNutrientRollup> rollups, List<NutrientTotalsDTO> foods,
+                                  LocalDate from, int days) {
+            int[] mealCounts = new int[days];
+            NutrientVector[] perDay = sumPerDay(rollups, from, days, mealCounts);
+            NutrientVector totals = new NutrientVector();
+            for (NutrientVector day : perDay) totals.add(day);
+
+            ChartDataDTO dto = new ChartDataDTO();
+            dto.setDailyTrend(buildDailyTrend(perDay, mealCounts, from, days));
+            dto.setMacroSplit(buildMacroSplit(totals));
+            dto.setMealTypeBreakdown(buildMealTypeBreakdown(rollups));
+            dto.setTopFoods(buildTopFoods(foods));
+            dto.setNutrientRadar(buildNutrientRadar(totals, days));
+            return dto;
+        }
+
+        private static NutrientVector[] sumPerDay(List<DailyNutrientRollup> rollups, LocalDate from, int days,
+                                                  int[] mealCounts) {
+            NutrientVector[] perDay = new NutrientVector[days];
+            for (int i = 0; i < days; i++) perDay[i] = new NutrientVector();
+            long firstDay = from.toEpochDay();
+            for (DailyNutrientRollup r : rollups) {
+                int idx = (int) (r.getRollupDate().toEpochDay() - firstDay);
+                if (idx < 0 || idx >= days) continue;
+                perDay[idx].addScaled(r.getNutrientTotals(), 0, 1.0);
+                mealCounts[idx] += r.getMealCount();
+            }
+            return perDay;
+        }
+
+        private static List<DayData> buildDailyTrend(NutrientVector[] perDay, int[] mealCounts,
+                                                     LocalDate from, int days) {
+            long firstDay = from.toEpochDay();
+            List<DayData> trend = new ArrayList<>(days);
+            for (int i = 0; i < days; i++) {
+                LocalDate date = LocalDate.ofEpochDay(firstDay + i);
+                NutrientVector day = perDay[i];
+                String label = date.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
+                trend.add(new DayData(date.toString(), label,
+                        round(day.get(Nutrient.CALORIES)), round(day.get(Nutrient.PROTEIN)),
+                        round(day.get(Nutrient.CARBOHYDRATES)), round(day.get(Nutrient.FAT)), mealCounts[i]));
+            }
+            return trend;
+        }
+
+        private static MacroSplit buildMacroSplit(NutrientVector totals) {
+            double pro  = totals.get(Nutrient.PROTEIN);
+            double carb = totals.get(Nutrient.CARBOHYDRATES);
+            double fat  = totals.get(Nutrient.FAT);
+            double total = pro + carb + fat;
+            if (total == 0) total = 1;
+            return new MacroSplit(
+                    round(pro), round(carb), round(fat),
+                    round(pro / total * 100), round(carb / total * 100), round(fat / total * 100));
+        }
+
+        private static List<MealTypeBreakdown> buildMealTypeBreakdown(List<DailyNutrientRollup> rollups) {
+            int types = MealType.values().length;
+            double[] calories = new double[types];
+            int[] counts = new int[types];
+            for (DailyNutrientRollup r : rollups) {
+                for (MealType mt : MealType.values()) {
+                    calories[mt.ordinal()] += r.getMealTypeCalories(mt);
+                    counts[mt.ordinal()]   += r.getMealTypeCount(mt);
+                }
+            }
+            List<MealTypeBreakdown> result = new ArrayList<>();
+            for (MealType mt : MealType.values()) {
+                if (counts[mt.ordinal()] == 0) continue;
+                result.add(new MealTypeBreakdown(mt.name(), round(calories[mt.ordinal()]), counts[mt.ordinal()]));
+            }
+            return result;
+        }
+
+        private static List<TopFood> buildTopFoods(List<NutrientTotalsDTO> foods) {
+            List<TopFood> top = new ArrayList<>(foods.size());
+            for (NutrientTotalsDTO f : foods) {
+                top.add(new TopFood(f.getFoodName(), round(f.nutrients().get(Nutrient.CALORIES)), (int) f.getEntryCount()));
+            }
+            return top;
+        }
+
+        private static List<RadarPoint> buildNutrientRadar(NutrientVector totals, int days) {
+            NutrientVector avg = totals.copy().divide(Math.max(days, 1));
+            List<RadarPoint> points = new ArrayList<>();
+            points.add(radarPoint("Protein",   Nutrient.PROTEIN, avg));
+            points.add(radarPoint("Carbs",     Nutrient.CARBOHYDRATES, avg));
+            points.add(radarPoint("Fat",       Nutrient.FAT, avg));
+            points.add(radarPoint("Fiber",     Nutrient.FIBER, avg));
+            points.add(radarPoint("Vitamin A", Nutrient.VITAMIN_A, avg));
+            points.add(radarPoint("Vitamin C", Nutrient.VITAMIN_C, avg));
+            points.add(radarPoint("Vitamin D", Nutrient.VITAMIN_D, avg));
+            points.add(radarPoint("Calcium",   Nutrient.CALCIUM, avg));
+            points.add(radarPoint("Iron",      Nutrient.IRON, avg));
+            points.add(radarPoint("Potassium", Nutrient.POTASSIUM, avg));
+            points.add(radarPoint("Zinc",      Nutrient.ZINC, avg));
+            points.add(radarPoint("Magnesium", Nutrient.MAGNESIUM, avg));
+            return points;
+        }
+
+        private static RadarPoint radarPoint(String label, Nutrient nutrient, NutrientVector avg) {
+            return new RadarPoint(label, Math.min(round(avg.get(nutrient) / RDA.get(nutrient) * 100), 150));
+        }
+
+        private static double round(double v) { return Math.round(v * 10.0) / 10.0; }
+    }
+}